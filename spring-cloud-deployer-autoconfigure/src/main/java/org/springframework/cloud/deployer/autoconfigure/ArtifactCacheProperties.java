@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.autoconfigure;
+
+import java.io.File;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cloud.deployer.resource.support.ArtifactCacheManager;
+import org.springframework.cloud.deployer.resource.support.ArtifactCacheManager.EvictionPolicy;
+import org.springframework.cloud.deployer.resource.support.DownloadCache;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration properties for the {@link DownloadCache} of HTTP resources and an
+ * {@link ArtifactCacheManager} shared by that cache and, optionally, the Maven local repository.
+ * The manager is only created when a quota is set.
+ * <p>
+ * Artifacts are only protected from eviction while a deployer retains them through the manager,
+ * see {@link ArtifactCacheManager#retain(org.springframework.core.io.Resource)}. The Maven local
+ * repository is therefore only included on request, as it is usually shared with other tools.
+ */
+@ConfigurationProperties(prefix = "spring.cloud.deployer.resource.cache")
+public class ArtifactCacheProperties {
+
+	/**
+	 * Directory to download HTTP resources to.
+	 */
+	private File directory = DownloadCache.DEFAULT_DIRECTORY;
+
+	/**
+	 * Maximum total size of the cached artifacts, e.g. 20GB.
+	 */
+	private DataSize quota;
+
+	/**
+	 * Order in which artifacts are evicted once the quota is exceeded.
+	 */
+	private EvictionPolicy evictionPolicy = EvictionPolicy.LEAST_RECENTLY_USED;
+
+	/**
+	 * Whether to also evict jars from the Maven local repository. The repository is scanned in
+	 * the background on startup.
+	 */
+	private boolean mavenLocalRepository;
+
+	public File getDirectory() {
+		return this.directory;
+	}
+
+	public void setDirectory(File directory) {
+		this.directory = directory;
+	}
+
+	public DataSize getQuota() {
+		return this.quota;
+	}
+
+	public void setQuota(DataSize quota) {
+		this.quota = quota;
+	}
+
+	public EvictionPolicy getEvictionPolicy() {
+		return this.evictionPolicy;
+	}
+
+	public void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+		this.evictionPolicy = evictionPolicy;
+	}
+
+	public boolean isMavenLocalRepository() {
+		return this.mavenLocalRepository;
+	}
+
+	public void setMavenLocalRepository(boolean mavenLocalRepository) {
+		this.mavenLocalRepository = mavenLocalRepository;
+	}
+
+}
@@ -15,9 +15,11 @@
  */
 package org.springframework.cloud.deployer.autoconfigure;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.cloud.deployer.resource.support.CachingResourceLoader;
 import org.springframework.cloud.deployer.resource.support.DelegatingResourceLoader;
 import org.springframework.core.io.ResourceLoader;
 
@@ -33,6 +35,10 @@ public class DelegatingResourceLoaderBuilder {
 
 	private final Map<String, ResourceLoader> loaders = new HashMap<>();
 
+	private int cacheMaxEntries;
+
+	private Duration cacheTimeToLive;
+
 	/**
 	 * Register a map of resource loaders.
 	 *
@@ -56,12 +62,34 @@ public class DelegatingResourceLoaderBuilder {
 		return this;
 	}
 
+	/**
+	 * Cache the resources returned by the registered loaders, so that repeated lookups of a
+	 * location return the same resource, see {@link CachingResourceLoader}.
+	 *
+	 * @param maxEntries the maximum number of locations to cache per loader
+	 * @param timeToLive how long a resource is cached for, or {@code null} for no expiry
+	 * @return builder instance for chaining
+	 */
+	public DelegatingResourceLoaderBuilder cacheResources(int maxEntries, Duration timeToLive) {
+		this.cacheMaxEntries = maxEntries;
+		this.cacheTimeToLive = timeToLive;
+		return this;
+	}
+
 	/**
 	 * Builds a {@link DelegatingResourceLoader}.
 	 *
 	 * @return the built delegating resource loader
 	 */
 	public DelegatingResourceLoader build() {
-		return new DelegatingResourceLoader(this.loaders);
+		if (this.cacheMaxEntries <= 0) {
+			return new DelegatingResourceLoader(this.loaders);
+		}
+		Map<String, ResourceLoader> loaders = new HashMap<>();
+		for (Map.Entry<String, ResourceLoader> entry : this.loaders.entrySet()) {
+			loaders.put(entry.getKey(),
+					new CachingResourceLoader(entry.getValue(), this.cacheMaxEntries, this.cacheTimeToLive));
+		}
+		return new DelegatingResourceLoader(loaders);
 	}
 }
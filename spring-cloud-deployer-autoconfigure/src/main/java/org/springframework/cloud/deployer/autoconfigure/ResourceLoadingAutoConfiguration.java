@@ -15,17 +15,25 @@
  */
 package org.springframework.cloud.deployer.autoconfigure;
 
+import java.io.File;
+
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.deployer.resource.maven.MavenArtifactListener;
 import org.springframework.cloud.deployer.resource.maven.MavenProperties;
 import org.springframework.cloud.deployer.resource.maven.MavenResourceLoader;
+import org.springframework.cloud.deployer.resource.support.ArtifactCacheManager;
 import org.springframework.cloud.deployer.resource.support.DelegatingResourceLoader;
+import org.springframework.cloud.deployer.resource.support.DownloadCache;
+import org.springframework.cloud.deployer.resource.support.DownloadingUrlResourceLoader;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 /**
  * Autoconfiguration of a file or Maven based {@link ResourceLoader}.
@@ -43,8 +51,71 @@ public class ResourceLoadingAutoConfiguration {
 
 		@Bean
 		@Order(0)
-		public DelegatingResourceLoaderBuilderCustomizer mavenDelegatingResourceLoaderBuilderCustomizer(MavenProperties mavenProperties) {
-			return customizer -> customizer.loader("maven", new MavenResourceLoader(mavenProperties));
+		public DelegatingResourceLoaderBuilderCustomizer mavenDelegatingResourceLoaderBuilderCustomizer(MavenProperties mavenProperties,
+				ObjectProvider<MavenArtifactListener> artifactListeners) {
+			return customizer -> {
+				MavenResourceLoader loader = new MavenResourceLoader(mavenProperties);
+				artifactListeners.orderedStream().forEach(loader::addArtifactListener);
+				customizer.loader("maven", loader);
+			};
+		}
+	}
+
+	@Configuration
+	@ConditionalOnClass(DownloadCache.class)
+	@EnableConfigurationProperties(ArtifactCacheProperties.class)
+	public static class DownloadCacheConfig {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public DownloadCache downloadCache(ArtifactCacheProperties properties,
+				ObjectProvider<ArtifactCacheManager> artifactCacheManager) {
+			ArtifactCacheManager cacheManager = artifactCacheManager.getIfAvailable();
+			return cacheManager != null ? new DownloadCache(properties.getDirectory(), cacheManager)
+					: new DownloadCache(properties.getDirectory());
+		}
+
+		@Bean
+		@Order(0)
+		public DelegatingResourceLoaderBuilderCustomizer downloadCacheDelegatingResourceLoaderBuilderCustomizer(
+				DownloadCache downloadCache) {
+			return customizer -> {
+				DownloadingUrlResourceLoader loader = new DownloadingUrlResourceLoader(downloadCache);
+				customizer.loader("http", loader);
+				customizer.loader("https", loader);
+			};
+		}
+	}
+
+	@Configuration
+	@ConditionalOnClass(ArtifactCacheManager.class)
+	@ConditionalOnProperty(prefix = "spring.cloud.deployer.resource.cache", name = "quota")
+	@EnableConfigurationProperties(ArtifactCacheProperties.class)
+	public static class ArtifactCacheConfig {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public ArtifactCacheManager artifactCacheManager(ArtifactCacheProperties properties) {
+			return new ArtifactCacheManager(properties.getQuota().toBytes(), properties.getEvictionPolicy());
+		}
+
+		@Configuration
+		@ConditionalOnClass(MavenResourceLoader.class)
+		@ConditionalOnProperty(prefix = "spring.cloud.deployer.resource.cache", name = "maven-local-repository",
+				havingValue = "true")
+		public static class MavenArtifactCacheConfig {
+
+			@Bean
+			public MavenArtifactListener artifactCacheMavenArtifactListener(ArtifactCacheManager artifactCacheManager,
+					MavenProperties mavenProperties) {
+				File localRepository = new File(mavenProperties.getLocalRepository());
+				// walking the whole local repository can take a while, so it does not hold up startup
+				CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("artifact-cache-scan-");
+				threadFactory.setDaemon(true);
+				threadFactory.newThread(() -> artifactCacheManager.track(localRepository,
+						file -> file.getName().endsWith(".jar"))).start();
+				return (resource, file) -> artifactCacheManager.accessed(file);
+			}
 		}
 	}
 
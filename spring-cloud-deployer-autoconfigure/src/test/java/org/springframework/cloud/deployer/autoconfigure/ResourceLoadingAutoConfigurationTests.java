@@ -17,12 +17,21 @@ package org.springframework.cloud.deployer.autoconfigure;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.File;
+import java.time.Duration;
+
 import org.assertj.core.api.Condition;
 import org.junit.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.deployer.resource.maven.MavenArtifactListener;
 import org.springframework.cloud.deployer.resource.maven.MavenProperties;
+import org.springframework.cloud.deployer.resource.support.ArtifactCacheManager;
+import org.springframework.cloud.deployer.resource.support.ArtifactCacheManager.EvictionPolicy;
+import org.springframework.cloud.deployer.resource.support.CachingResourceLoader;
 import org.springframework.cloud.deployer.resource.support.DelegatingResourceLoader;
+import org.springframework.cloud.deployer.resource.support.DownloadCache;
+import org.springframework.cloud.deployer.resource.support.DownloadingUrlResourceLoader;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
@@ -60,6 +69,14 @@ public class ResourceLoadingAutoConfigurationTests {
 	private final static Condition<DelegatingResourceLoader> foobarCondition = new Condition<>(
 			l -> l.getLoaders().containsKey("foobar"), "foobar mock loader");
 
+	private final static Condition<DelegatingResourceLoader> httpCondition = new Condition<>(
+			l -> l.getLoaders().get("http") instanceof DownloadingUrlResourceLoader
+					&& l.getLoaders().get("https") instanceof DownloadingUrlResourceLoader, "http loaders");
+
+	private final static Condition<ArtifactCacheManager> artifactCacheCondition = new Condition<>(
+			m -> m.getQuota() == 1024L * 1024 * 1024
+					&& m.getPolicy() == EvictionPolicy.LEAST_FREQUENTLY_USED, "1GB LFU cache");
+
 	private final static Condition<MavenProperties> offlineCondition = new Condition<>(
 			p -> p.isOffline(), "offline");
 
@@ -103,6 +120,68 @@ public class ResourceLoadingAutoConfigurationTests {
 				});
 	}
 
+	@Test
+	public void testBuilderResourceCaching() {
+		this.contextRunner
+				.withUserConfiguration(CachingBuilderCustomizerConfig.class)
+				.run((context) -> {
+					DelegatingResourceLoader loader = context.getBean(DelegatingResourceLoader.class);
+					assertThat(loader.getLoaders().get("maven")).isInstanceOf(CachingResourceLoader.class);
+					assertThat(loader.getResource("maven://foo:bar:1.0.0"))
+							.isSameAs(loader.getResource("maven://foo:bar:1.0.0"));
+				});
+	}
+
+	@Test
+	public void testArtifactCacheDisabledByDefault() {
+		this.contextRunner
+				.run((context) -> {
+					assertThat(context).doesNotHaveBean(ArtifactCacheManager.class);
+				});
+	}
+
+	@Test
+	public void testArtifactCache() {
+		this.contextRunner
+				.withPropertyValues("spring.cloud.deployer.resource.cache.quota=1GB",
+						"spring.cloud.deployer.resource.cache.eviction-policy=least-frequently-used",
+						"maven.local-repository=" + new File("target/artifact-cache-repository").getAbsolutePath())
+				.run((context) -> {
+					assertThat(context).getBean(ArtifactCacheManager.class).has(artifactCacheCondition);
+					assertThat(context).getBean(DelegatingResourceLoader.class).has(httpCondition);
+					assertThat(context).doesNotHaveBean(MavenArtifactListener.class);
+					assertThat(context.getBean(DownloadCache.class).getCacheManager())
+							.isSameAs(context.getBean(ArtifactCacheManager.class));
+				});
+	}
+
+	@Test
+	public void testDownloadCacheDirectory() {
+		File directory = new File("target/download-cache").getAbsoluteFile();
+		this.contextRunner
+				.withPropertyValues("spring.cloud.deployer.resource.cache.directory=" + directory)
+				.run((context) -> {
+					DownloadCache cache = context.getBean(DownloadCache.class);
+					assertThat(cache.getDirectory()).isEqualTo(directory);
+					assertThat(cache.getCacheManager()).isNull();
+					DelegatingResourceLoader loader = context.getBean(DelegatingResourceLoader.class);
+					assertThat(((DownloadingUrlResourceLoader) loader.getLoaders().get("https")).getDownloadCache())
+							.isSameAs(cache);
+				});
+	}
+
+	@Test
+	public void testArtifactCacheWithMavenLocalRepository() {
+		this.contextRunner
+				.withPropertyValues("spring.cloud.deployer.resource.cache.quota=1GB",
+						"spring.cloud.deployer.resource.cache.maven-local-repository=true",
+						"maven.local-repository=" + new File("target/artifact-cache-repository").getAbsolutePath())
+				.run((context) -> {
+					assertThat(context).hasSingleBean(ArtifactCacheManager.class);
+					assertThat(context).hasSingleBean(MavenArtifactListener.class);
+				});
+	}
+
 	@Configuration
 	static class CustomBuilderCustomizerConfig {
 
@@ -112,6 +191,16 @@ public class ResourceLoadingAutoConfigurationTests {
 		}
 	}
 
+	@Configuration
+	static class CachingBuilderCustomizerConfig {
+
+		@Bean
+		@Order(Ordered.LOWEST_PRECEDENCE)
+		public DelegatingResourceLoaderBuilderCustomizer cachingDelegatingResourceLoaderBuilderCustomizer() {
+			return customizer -> customizer.cacheResources(100, Duration.ofMinutes(5));
+		}
+	}
+
 	@Configuration
 	static class MavenReplacingBuilderCustomizerConfig {
 
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Benchmarks for the coordinate handling of {@link MavenResource}, which app registries exercise
+ * for every registered app on startup and on every lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MavenCoordinatesBenchmarks {
+
+	private static final String SHORT_COORDINATES = "org.springframework.cloud.stream.app:log-sink-rabbit:2.1.0.RELEASE";
+
+	private Path localRepository;
+
+	private MavenArtifactResolver resolver;
+
+	private MavenResourceLoader loader;
+
+	private MavenResource resource;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		this.localRepository = Files.createTempDirectory("maven-benchmarks");
+		MavenProperties properties = new MavenProperties();
+		properties.setLocalRepository(this.localRepository.toString());
+		properties.setOffline(true);
+		this.resolver = new MavenArtifactResolver(properties);
+		this.loader = new MavenResourceLoader(properties);
+		this.resource = MavenResource.parse(MavenResourceBenchmarks.COORDINATES, this.resolver);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		FileSystemUtils.deleteRecursively(this.localRepository.toFile());
+	}
+
+	@Benchmark
+	public MavenResource parse() {
+		return MavenResource.parse(MavenResourceBenchmarks.COORDINATES, this.resolver);
+	}
+
+	@Benchmark
+	public MavenResource parseShort() {
+		return MavenResource.parse(SHORT_COORDINATES, this.resolver);
+	}
+
+	@Benchmark
+	public Resource loaderGetResource() {
+		return this.loader.getResource("maven://" + MavenResourceBenchmarks.COORDINATES);
+	}
+
+	@Benchmark
+	public String parseAndToString() {
+		return MavenResource.parse(MavenResourceBenchmarks.COORDINATES, this.resolver).toString();
+	}
+
+	@Benchmark
+	public String toStringCached() {
+		return this.resource.toString();
+	}
+
+	@Benchmark
+	public URI getURI() throws IOException {
+		return this.resource.getURI();
+	}
+
+	@Benchmark
+	public int hashCodeCached() {
+		return this.resource.hashCode();
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Benchmarks for downloading artifacts from a remote repository, served by a local HTTP server
+ * standing in for Artifactory. Every invocation resolves a version that is not yet in the local
+ * repository, so each one goes over the network, with and without pooled connections. The
+ * {@code firstByte} benchmark measures the time until the first byte of a large artifact can be
+ * read, with and without {@link MavenProperties.Resolution#isStreaming() streaming}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MavenHttpRepositoryBenchmarks {
+
+	private static final byte[] ARTIFACT = new byte[64 * 1024];
+
+	private static final byte[] LARGE_ARTIFACT = new byte[32 * 1024 * 1024];
+
+	@Param({ "true", "false" })
+	public boolean pooled;
+
+	@Param({ "true", "false" })
+	public boolean streaming;
+
+	private final AtomicLong versions = new AtomicLong();
+
+	private Path localRepository;
+
+	private HttpServer server;
+
+	private MavenArtifactResolver resolver;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException, NoSuchAlgorithmException {
+		byte[] checksum = sha1Hex(ARTIFACT).getBytes(StandardCharsets.US_ASCII);
+		byte[] largeChecksum = sha1Hex(LARGE_ARTIFACT).getBytes(StandardCharsets.US_ASCII);
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/repo", exchange -> {
+			String path = exchange.getRequestURI().getPath();
+			boolean large = path.contains("-large-");
+			byte[] body = path.endsWith(".jar") ? (large ? LARGE_ARTIFACT : ARTIFACT)
+					: path.endsWith(".jar.sha1") ? (large ? largeChecksum : checksum) : null;
+			exchange.sendResponseHeaders(body != null ? 200 : 404, body != null ? body.length : -1);
+			if (body != null) {
+				try (OutputStream os = exchange.getResponseBody()) {
+					os.write(body);
+				}
+			}
+			exchange.close();
+		});
+		this.server.start();
+		this.localRepository = Files.createTempDirectory("maven-benchmarks");
+		MavenProperties properties = new MavenProperties();
+		properties.setLocalRepository(this.localRepository.toString());
+		properties.setRemoteRepositories(Collections.singletonMap("local", new MavenProperties.RemoteRepository(
+				"http://localhost:" + this.server.getAddress().getPort() + "/repo")));
+		properties.getConnectionPool().setEnabled(this.pooled);
+		properties.getResolution().setStreaming(this.streaming);
+		this.resolver = new MavenArtifactResolver(properties);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.server.stop(0);
+		FileSystemUtils.deleteRecursively(this.localRepository.toFile());
+	}
+
+	@Benchmark
+	public File download() throws IOException {
+		String coordinates = "org.springframework.cloud.stream.app:log-sink-rabbit:1.0." + this.versions.incrementAndGet();
+		return this.resolver.resolve(MavenResource.parse(coordinates, this.resolver)).getFile();
+	}
+
+	@Benchmark
+	public int firstByte() throws IOException {
+		String coordinates = "org.springframework.cloud.stream.app:log-sink-large-rabbit:1.0." + this.versions.incrementAndGet();
+		try (InputStream is = MavenResource.parse(coordinates, this.resolver).getInputStream()) {
+			return is.read();
+		}
+	}
+
+	private static String sha1Hex(byte[] bytes) throws NoSuchAlgorithmException {
+		StringBuilder hex = new StringBuilder();
+		for (byte b : MessageDigest.getInstance("SHA-1").digest(bytes)) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+
+}
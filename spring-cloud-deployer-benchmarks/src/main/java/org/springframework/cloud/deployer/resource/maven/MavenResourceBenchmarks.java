@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Benchmarks for parsing and resolving {@link MavenResource}s against a file based local
+ * repository in offline mode, so that only the resolution infrastructure is measured.
+ * <p>
+ * The {@code perResourceResolver} benchmark reproduces the previous behavior where every
+ * resource created its own {@link MavenArtifactResolver}. The {@code resolve} benchmarks measure
+ * {@link MavenArtifactResolver#resolve(MavenResource)} with and without the in-memory cache of
+ * resolved artifacts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MavenResourceBenchmarks {
+
+	static final String COORDINATES = "org.springframework.cloud.stream.app:log-sink-rabbit:jar:exec:2.1.0.RELEASE";
+
+	private Path localRepository;
+
+	private MavenProperties properties;
+
+	private MavenResourceLoader loader;
+
+	private MavenArtifactResolver resolver;
+
+	private MavenArtifactResolver uncachedResolver;
+
+	private MavenResource resource;
+
+	private MavenResource uncachedResource;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		this.localRepository = Files.createTempDirectory("maven-benchmarks");
+		this.properties = new MavenProperties();
+		this.properties.setLocalRepository(this.localRepository.toString());
+		this.properties.setOffline(true);
+		installArtifact(this.localRepository, MavenResource.parse(COORDINATES, this.properties));
+		this.loader = new MavenResourceLoader(this.properties);
+		this.resolver = new MavenArtifactResolver(this.properties);
+		this.resource = MavenResource.parse(COORDINATES, this.resolver);
+		MavenProperties uncached = new MavenProperties();
+		uncached.setLocalRepository(this.localRepository.toString());
+		uncached.setOffline(true);
+		uncached.getResolution().setCacheSize(0);
+		this.uncachedResolver = new MavenArtifactResolver(uncached);
+		this.uncachedResource = MavenResource.parse(COORDINATES, this.uncachedResolver);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		FileSystemUtils.deleteRecursively(this.localRepository.toFile());
+	}
+
+	@Benchmark
+	public File sharedResolver() throws IOException {
+		return this.loader.getResource("maven://" + COORDINATES).getFile();
+	}
+
+	@Benchmark
+	public File perResourceResolver() throws IOException {
+		MavenArtifactResolver resolver = new MavenArtifactResolver(this.properties);
+		return MavenResource.parse(COORDINATES, resolver).getFile();
+	}
+
+	@Benchmark
+	public Resource resolve() {
+		return this.resolver.resolve(this.resource);
+	}
+
+	@Benchmark
+	public Resource resolveUncached() {
+		return this.uncachedResolver.resolve(this.uncachedResource);
+	}
+
+	/**
+	 * Lay out a dummy artifact for the given resource in the given local repository.
+	 */
+	static File installArtifact(Path localRepository, MavenResource resource) throws IOException {
+		Path directory = localRepository.resolve(resource.getGroupId().replace('.', File.separatorChar))
+				.resolve(resource.getArtifactId()).resolve(resource.getVersion());
+		Files.createDirectories(directory);
+		Path artifact = directory.resolve(resource.getFilename());
+		Files.write(artifact, new byte[64 * 1024]);
+		return artifact.toFile();
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.support;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.deployer.resource.maven.MavenProperties;
+import org.springframework.cloud.deployer.resource.maven.MavenResourceLoader;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+/**
+ * Benchmarks for looking up resources through a {@link DelegatingResourceLoader} configured like
+ * the auto-configuration does, for each of the commonly used schemes. {@code dispatch} looks up a
+ * location whose loader returns a constant resource, measuring the dispatch on its own.
+ * {@code cachedMaven} looks up through a {@link CachingResourceLoader} in front of the Maven loader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DelegatingResourceLoaderBenchmarks {
+
+	private DelegatingResourceLoader loader;
+
+	private DelegatingResourceLoader cachingLoader;
+
+	@Setup
+	public void setup() {
+		Map<String, ResourceLoader> loaders = new HashMap<>();
+		loaders.put("maven", new MavenResourceLoader(new MavenProperties()));
+		loaders.put("docker", new ConstantResourceLoader());
+		this.loader = new DelegatingResourceLoader(loaders);
+		Map<String, ResourceLoader> cachingLoaders = new HashMap<>();
+		cachingLoaders.put("maven", new CachingResourceLoader(loaders.get("maven"), 1000, Duration.ofMinutes(5)));
+		this.cachingLoader = new DelegatingResourceLoader(cachingLoaders);
+	}
+
+	@Benchmark
+	public Resource dispatch() {
+		return this.loader.getResource("docker:springcloudstream/log-sink-rabbit:2.1.0.RELEASE");
+	}
+
+	@Benchmark
+	public Resource maven() {
+		return this.loader.getResource("maven://org.springframework.cloud.stream.app:log-sink-rabbit:2.1.0.RELEASE");
+	}
+
+	@Benchmark
+	public Resource cachedMaven() {
+		return this.cachingLoader.getResource("maven://org.springframework.cloud.stream.app:log-sink-rabbit:2.1.0.RELEASE");
+	}
+
+	@Benchmark
+	public Resource http() {
+		return this.loader.getResource(
+				"https://repo.spring.io/libs-release/org/springframework/cloud/stream/app/log-sink-rabbit/2.1.0.RELEASE/log-sink-rabbit-2.1.0.RELEASE.jar");
+	}
+
+	@Benchmark
+	public Resource file() {
+		return this.loader.getResource("file:/opt/apps/log-sink-rabbit-2.1.0.RELEASE.jar");
+	}
+
+	private static class ConstantResourceLoader implements ResourceLoader {
+
+		private final Resource resource = new ByteArrayResource(new byte[0]);
+
+		@Override
+		public Resource getResource(String location) {
+			return this.resource;
+		}
+
+		@Override
+		public ClassLoader getClassLoader() {
+			return null;
+		}
+
+	}
+
+}
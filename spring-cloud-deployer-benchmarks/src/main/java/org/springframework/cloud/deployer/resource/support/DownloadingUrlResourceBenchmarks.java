@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Benchmarks for {@link DownloadingUrlResource#getFile()} against a local HTTP server standing in
+ * for a remote artifact repository. Every invocation uses a new resource, as applications
+ * registered by URL get one per lookup. The {@code download} benchmark requests a URL that is not
+ * cached yet on every invocation, {@code cached} one that is served from the {@link DownloadCache}.
+ * The largest size is in the range of a fat application jar. {@code downloadInParts} downloads it
+ * with four concurrent range requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DownloadingUrlResourceBenchmarks {
+
+	@Param({ "65536", "8388608", "134217728" })
+	public int size;
+
+	private HttpServer server;
+
+	private String url;
+
+	private final AtomicLong downloads = new AtomicLong();
+
+	private Path cacheDirectory;
+
+	private DownloadCache cache;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		byte[] chunk = new byte[Math.min(this.size, 65536)];
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/repo", exchange -> {
+			long start = 0;
+			long end = this.size - 1;
+			String range = exchange.getRequestHeaders().getFirst("Range");
+			if (range != null) {
+				String[] bounds = range.substring("bytes=".length()).split("-");
+				start = Long.parseLong(bounds[0]);
+				end = Long.parseLong(bounds[1]);
+				exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + this.size);
+				exchange.sendResponseHeaders(206, end - start + 1);
+			}
+			else {
+				exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+				exchange.sendResponseHeaders(200, this.size);
+			}
+			try (OutputStream os = exchange.getResponseBody()) {
+				for (long remaining = end - start + 1; remaining > 0; remaining -= chunk.length) {
+					os.write(chunk, 0, (int) Math.min(remaining, chunk.length));
+				}
+			}
+			exchange.close();
+		});
+		this.server.setExecutor(Executors.newCachedThreadPool());
+		this.server.start();
+		this.url = "http://localhost:" + this.server.getAddress().getPort() + "/repo/log-sink-rabbit-2.1.0.RELEASE.jar";
+		this.cacheDirectory = Files.createTempDirectory("download-benchmarks");
+		this.cache = new DownloadCache(this.cacheDirectory.toFile());
+		new DownloadingUrlResource(this.url, this.cache).getFile();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.server.stop(0);
+		FileSystemUtils.deleteRecursively(this.cacheDirectory.toFile());
+	}
+
+	@Benchmark
+	public File download() throws IOException {
+		// the query string makes for a new cache entry, but is ignored by the server
+		File file = new DownloadingUrlResource(this.url + "?" + this.downloads.incrementAndGet(), this.cache).getFile();
+		file.delete();
+		return file;
+	}
+
+	@Benchmark
+	public File downloadInParts() throws IOException {
+		DownloadingUrlResource resource = new DownloadingUrlResource(this.url + "?" + this.downloads.incrementAndGet(),
+				this.cache);
+		resource.setParallelDownloadParts(4);
+		resource.setParallelDownloadThreshold(0);
+		File file = resource.getFile();
+		file.delete();
+		return file;
+	}
+
+	@Benchmark
+	public File cached() throws IOException {
+		return new DownloadingUrlResource(this.url, this.cache).getFile();
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link ShaUtils}, used to derive the download file name of every URL resource,
+ * and to hash downloaded files. File hashing is measured on an 8 MiB file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShaUtilsBenchmarks {
+
+	private String url = "https://repo.spring.io/libs-release/org/springframework/cloud/stream/app/log-sink-rabbit/"
+			+ "2.1.0.RELEASE/log-sink-rabbit-2.1.0.RELEASE.jar";
+
+	private File file;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		byte[] content = new byte[8 * 1024 * 1024];
+		new Random(0).nextBytes(content);
+		this.file = File.createTempFile("sha-benchmarks", ".jar");
+		Files.write(this.file.toPath(), content);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.file.delete();
+	}
+
+	@Benchmark
+	public String sha1() {
+		return ShaUtils.sha1(this.url);
+	}
+
+	@Benchmark
+	public String sha256() {
+		return ShaUtils.sha256(this.url);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public String sha1File() throws IOException {
+		return ShaUtils.sha1(this.file);
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public String sha256File() throws IOException {
+		return ShaUtils.sha256(this.file);
+	}
+
+}
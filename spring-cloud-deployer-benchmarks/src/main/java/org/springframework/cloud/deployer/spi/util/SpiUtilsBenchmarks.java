@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.spi.util;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the parsing utilities deployers apply to every deployment request:
+ * {@link CommandLineTokenizer} for command line arguments and {@link ByteSizeUtils} for memory
+ * and disk limits.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpiUtilsBenchmarks {
+
+	private String commandLine = "--server.port=8080 --spring.cloud.stream.bindings.input.destination=ticktock "
+			+ "'--spring.application.name=log sink' \"--log.expression=payload + ' ' + headers\" --debug";
+
+	private String size = "1024m";
+
+	private String sizeInGibibytes = "2G";
+
+	@Benchmark
+	public List<String> tokenize() {
+		return new CommandLineTokenizer(this.commandLine).getArgs();
+	}
+
+	@Benchmark
+	public long parseMebibytes() {
+		return ByteSizeUtils.parseToMebibytes(this.size);
+	}
+
+	@Benchmark
+	public long parseGibibytes() {
+		return ByteSizeUtils.parseToMebibytes(this.sizeInGibibytes);
+	}
+
+}
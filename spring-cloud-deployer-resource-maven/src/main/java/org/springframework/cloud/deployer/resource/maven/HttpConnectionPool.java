@@ -0,0 +1,171 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.eclipse.aether.DefaultRepositoryCache;
+import org.eclipse.aether.RepositoryCache;
+import org.eclipse.aether.RepositorySystemSession;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Keeps the HTTP connections opened by Aether's HTTP transporter alive across repository sessions.
+ * <p>
+ * The transporter only pools connections within the {@link RepositoryCache} of a session and shuts
+ * its connection managers down otherwise. Sessions are created per resolution, so each session gets
+ * a cache from {@link #newSessionCache()} that stores the transporter state in this pool while all
+ * other entries remain private to the session. Connections that have been idle for longer than the
+ * configured timeout are closed whenever a new session is created.
+ * <p>
+ * Aether creates the transporter state without any lock shared between sessions, so sessions
+ * starting at the same time may each create one. The first one stored is kept and shared, the
+ * others are closed.
+ * <p>
+ * Aether 1.0.2 creates its connection managers with a fixed per route limit. If a limit is
+ * configured, it is applied to each connection manager once it exists, i.e. from the second
+ * session using it on, through the private state of the transporter.
+ */
+class HttpConnectionPool {
+
+	private static final Log log = LogFactory.getLog(HttpConnectionPool.class);
+
+	/**
+	 * The key under which {@code org.eclipse.aether.transport.http.GlobalState} stores itself.
+	 */
+	static final String TRANSPORT_STATE_KEY = "org.eclipse.aether.transport.http.GlobalState";
+
+	private final int maxConnectionsPerRoute;
+
+	private final long idleTimeout;
+
+	private final Object monitor = new Object();
+
+	private volatile Object transportState;
+
+	private volatile boolean inspectable = true;
+
+	/**
+	 * @param maxConnectionsPerRoute the per route limit of the connection managers, or 0 to keep
+	 * the limit of the transporter
+	 * @param idleTimeout the time in milliseconds after which idle connections are closed
+	 */
+	HttpConnectionPool(int maxConnectionsPerRoute, long idleTimeout) {
+		Assert.isTrue(maxConnectionsPerRoute >= 0, "maxConnectionsPerRoute must not be negative");
+		this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+		this.idleTimeout = idleTimeout;
+	}
+
+	/**
+	 * Create the cache for a new repository session, evicting idle connections first.
+	 */
+	RepositoryCache newSessionCache() {
+		evictIdleConnections();
+		return new SessionCache();
+	}
+
+	void evictIdleConnections() {
+		for (ClientConnectionManager connectionManager : connectionManagers()) {
+			if (this.maxConnectionsPerRoute > 0 && connectionManager instanceof PoolingClientConnectionManager) {
+				PoolingClientConnectionManager pool = (PoolingClientConnectionManager) connectionManager;
+				if (pool.getDefaultMaxPerRoute() != this.maxConnectionsPerRoute) {
+					pool.setMaxTotal(Math.max(pool.getMaxTotal(), this.maxConnectionsPerRoute));
+					pool.setDefaultMaxPerRoute(this.maxConnectionsPerRoute);
+				}
+			}
+			connectionManager.closeExpiredConnections();
+			connectionManager.closeIdleConnections(this.idleTimeout, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Iterable<ClientConnectionManager> connectionManagers() {
+		Object state = this.transportState;
+		if (state == null || !this.inspectable) {
+			return Collections.emptyList();
+		}
+		try {
+			Field field = ReflectionUtils.findField(state.getClass(), "connectionManagers");
+			Assert.state(field != null, "No connectionManagers field in " + state.getClass());
+			ReflectionUtils.makeAccessible(field);
+			return ((Map<?, ClientConnectionManager>) ReflectionUtils.getField(field, state)).values();
+		}
+		catch (RuntimeException e) {
+			// connections are still pooled, but neither limited nor evicted by us
+			log.warn("Unable to manage the pooled connections of " + state.getClass().getName(), e);
+			this.inspectable = false;
+			return Collections.emptyList();
+		}
+	}
+
+	/**
+	 * Store the transporter state created by a session, unless another session stored one first, in
+	 * which case it is closed. The session that created it still uses the closed state, which only
+	 * creates connection managers for that session from then on.
+	 */
+	private void share(Object state) {
+		synchronized (this.monitor) {
+			if (this.transportState == null) {
+				this.transportState = state;
+				return;
+			}
+		}
+		if (state != this.transportState && state instanceof Closeable) {
+			try {
+				((Closeable) state).close();
+			}
+			catch (IOException e) {
+				log.warn("Unable to close " + state.getClass().getName(), e);
+			}
+		}
+	}
+
+	private class SessionCache implements RepositoryCache {
+
+		private final RepositoryCache delegate = new DefaultRepositoryCache();
+
+		@Override
+		public void put(RepositorySystemSession session, Object key, Object data) {
+			if (TRANSPORT_STATE_KEY.equals(key)) {
+				share(data);
+			}
+			else {
+				this.delegate.put(session, key, data);
+			}
+		}
+
+		@Override
+		public Object get(RepositorySystemSession session, Object key) {
+			if (TRANSPORT_STATE_KEY.equals(key)) {
+				return transportState;
+			}
+			return this.delegate.get(session, key);
+		}
+	}
+
+}
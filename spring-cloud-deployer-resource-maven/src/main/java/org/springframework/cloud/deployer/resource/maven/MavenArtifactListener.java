@@ -0,0 +1,39 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.io.File;
+
+/**
+ * Callback notified each time an artifact is served from the local repository, whether it had to
+ * be downloaded or not, for example to track the use of the local repository and keep it within
+ * a disk quota.
+ *
+ * @see MavenResourceLoader#addArtifactListener(MavenArtifactListener)
+ */
+@FunctionalInterface
+public interface MavenArtifactListener {
+
+	/**
+	 * Called after an artifact has been resolved.
+	 *
+	 * @param resource the resource representing the artifact
+	 * @param file the artifact in the local repository
+	 */
+	void artifactResolved(MavenResource resource, File file);
+
+}
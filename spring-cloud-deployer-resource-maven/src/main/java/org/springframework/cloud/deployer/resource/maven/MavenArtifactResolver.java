@@ -17,12 +17,31 @@
 package org.springframework.cloud.deployer.resource.maven;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ChoiceFormat;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -38,6 +57,7 @@ import org.eclipse.aether.impl.DefaultServiceLocator;
 import org.eclipse.aether.repository.Authentication;
 import org.eclipse.aether.repository.AuthenticationContext;
 import org.eclipse.aether.repository.AuthenticationDigest;
+import org.eclipse.aether.repository.LocalArtifactRegistration;
 import org.eclipse.aether.repository.LocalRepository;
 import org.eclipse.aether.repository.Proxy;
 import org.eclipse.aether.repository.RemoteRepository;
@@ -46,7 +66,10 @@ import org.eclipse.aether.resolution.ArtifactRequest;
 import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.eclipse.aether.resolution.ArtifactResult;
 import org.eclipse.aether.spi.connector.RepositoryConnectorFactory;
+import org.eclipse.aether.spi.connector.transport.GetTask;
+import org.eclipse.aether.spi.connector.transport.Transporter;
 import org.eclipse.aether.spi.connector.transport.TransporterFactory;
+import org.eclipse.aether.spi.connector.transport.TransporterProvider;
 import org.eclipse.aether.transport.file.FileTransporterFactory;
 import org.eclipse.aether.transport.http.HttpTransporterFactory;
 import org.eclipse.aether.util.artifact.JavaScopes;
@@ -55,12 +78,17 @@ import org.eclipse.aether.util.repository.DefaultProxySelector;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.StringUtils;
 
 /**
  * Resolves a {@link MavenResource} using <a href="http://www.eclipse.org/aether/>aether</a> to
  * locate the artifact (uber jar) in a local Maven repository, downloading the latest update from a
  * remote repository if necessary.
+ * <p>
+ * Instances are thread-safe and relatively expensive to create, so they are shared between all
+ * {@link MavenResource}s created from the same {@link MavenProperties} instance, see
+ * {@link #forProperties(MavenProperties)}.
  *
  * @author David Turanski
  * @author Mark Fisher
@@ -74,14 +102,42 @@ class MavenArtifactResolver {
 
 	private static final String DEFAULT_CONTENT_TYPE = "default";
 
+	private static final String SNAPSHOT = "SNAPSHOT";
+
+	/**
+	 * Shared resolvers keyed by {@link MavenProperties} instance. {@code MavenProperties} does not
+	 * override {@code equals}, so lookups are effectively by identity.
+	 */
+	private static final Map<MavenProperties, MavenArtifactResolver> sharedResolvers =
+			new ConcurrentReferenceHashMap<>();
+
+	private static volatile MavenArtifactResolver defaultResolver;
+
 	private final RepositorySystem repositorySystem;
 
+	private final TransporterProvider transporterProvider;
+
 	private final MavenProperties properties;
 
 	private final List<RemoteRepository> remoteRepositories = new LinkedList<>();
 
 	private final Authentication authentication;
 
+	private final ResolvedArtifactCache resolvedArtifacts;
+
+	private final ResolutionExecutor executor;
+
+	private final HttpConnectionPool connectionPool;
+
+	/**
+	 * Resolutions currently running, so that concurrent requests for the same coordinates share a
+	 * single resolution (and download) and all observe the same outcome.
+	 */
+	private final ConcurrentMap<MavenResource, CompletableFuture<File>> inFlightResolutions =
+			new ConcurrentHashMap<>();
+
+	private final List<MavenArtifactListener> artifactListeners = new CopyOnWriteArrayList<>();
+
 	/**
 	 * Create an instance using the provided properties.
 	 *
@@ -158,7 +214,50 @@ class MavenArtifactResolver {
 			}
 			this.remoteRepositories.add(remoteRepositoryBuilder.build());
 		}
-		this.repositorySystem = newRepositorySystem();
+		DefaultServiceLocator serviceLocator = newServiceLocator();
+		this.repositorySystem = serviceLocator.getService(RepositorySystem.class);
+		this.transporterProvider = serviceLocator.getService(TransporterProvider.class);
+		this.resolvedArtifacts = new ResolvedArtifactCache(this.properties.getResolution().getCacheSize(),
+				this.properties.getResolution().getSnapshotCacheTtl());
+		this.executor = new ResolutionExecutor(this.properties.getResolution().getParallelism(),
+				this.properties.getResolution().isVirtualThreads());
+		MavenProperties.ConnectionPool connectionPool = this.properties.getConnectionPool();
+		this.connectionPool = connectionPool != null && connectionPool.isEnabled()
+				? new HttpConnectionPool(connectionPool.getMaxConnectionsPerRoute(), connectionPool.getIdleTimeout())
+				: null;
+	}
+
+	/**
+	 * Return the shared resolver for the provided properties, creating it on first use. Changes
+	 * made to the properties after the resolver has been created are not picked up.
+	 *
+	 * @param properties the properties for the maven repositories, proxies, and authentication;
+	 * if {@code null}, a resolver using default {@link MavenProperties} is returned
+	 * @return the shared {@link MavenArtifactResolver}
+	 */
+	static MavenArtifactResolver forProperties(MavenProperties properties) {
+		if (properties == null) {
+			MavenArtifactResolver resolver = defaultResolver;
+			if (resolver == null) {
+				synchronized (MavenArtifactResolver.class) {
+					resolver = defaultResolver;
+					if (resolver == null) {
+						resolver = new MavenArtifactResolver(new MavenProperties());
+						defaultResolver = resolver;
+					}
+				}
+			}
+			return resolver;
+		}
+		MavenArtifactResolver resolver = sharedResolvers.get(properties);
+		if (resolver == null) {
+			MavenArtifactResolver created = new MavenArtifactResolver(properties);
+			resolver = sharedResolvers.putIfAbsent(properties, created);
+			if (resolver == null) {
+				resolver = created;
+			}
+		}
+		return resolver;
 	}
 
 	/**
@@ -221,7 +320,8 @@ class MavenArtifactResolver {
 	}
 
 	/*
-	 * Create a session to manage remote and local synchronization.
+	 * Create a session to manage remote and local synchronization. Sessions are short lived, but
+	 * share the pooled HTTP connections to the remote repositories.
 	 */
 	private DefaultRepositorySystemSession newRepositorySystemSession(RepositorySystem system, String localRepoPath) {
 		DefaultRepositorySystemSession session = MavenRepositorySystemUtils.newSession();
@@ -230,6 +330,9 @@ class MavenArtifactResolver {
 		session.setOffline(this.properties.isOffline());
 		session.setUpdatePolicy(this.properties.getUpdatePolicy());
 		session.setChecksumPolicy(this.properties.getChecksumPolicy());
+		if (this.connectionPool != null) {
+			session.setCache(this.connectionPool.newSessionCache());
+		}
 		if (this.properties.getConnectTimeout() != null) {
 			session.setConfigProperty(ConfigurationProperties.CONNECT_TIMEOUT, this.properties.getConnectTimeout());
 		}
@@ -253,7 +356,7 @@ class MavenArtifactResolver {
 	 * Using the prepopulated {@link DefaultServiceLocator}, we need to register the repository connector
 	 * and transporter factories
 	 */
-	private RepositorySystem newRepositorySystem() {
+	private DefaultServiceLocator newServiceLocator() {
 		DefaultServiceLocator locator = MavenRepositorySystemUtils.newServiceLocator();
 		locator.addService(RepositoryConnectorFactory.class, BasicRepositoryConnectorFactory.class);
 		locator.addService(TransporterFactory.class, FileTransporterFactory.class);
@@ -264,21 +367,268 @@ class MavenArtifactResolver {
 				throw new RuntimeException(exception);
 			}
 		});
-		return locator.getService(RepositorySystem.class);
+		return locator;
 	}
 
 	/**
 	 * Resolve an artifact and return its location in the local repository. Aether performs the normal
 	 * Maven resolution process ensuring that the latest update is cached to the local repository.
 	 * In addition, if the {@link MavenProperties#resolvePom} flag is <code>true</code>,
-	 * the POM is also resolved and cached.
+	 * the POM is also resolved and cached. Artifacts resolved previously are served from an
+	 * in-memory cache, see {@link MavenProperties.Resolution}.
 	 * @param resource the {@link MavenResource} representing the artifact
 	 * @return a {@link FileSystemResource} representing the resolved artifact in the local repository
 	 * @throws IllegalStateException if the artifact does not exist or the resolution fails
 	 */
 	Resource resolve(MavenResource resource) {
+		return new FileSystemResource(await(resolveAsync(resource)));
+	}
+
+	/**
+	 * Resolve an artifact without blocking the calling thread. The resolution runs on the
+	 * resolution executor, which caps the number of concurrent resolutions at
+	 * {@link MavenProperties.Resolution#getParallelism()}. Concurrent requests for the same
+	 * coordinates are coalesced into a single resolution, though each gets a future of its own.
+	 * @param resource the {@link MavenResource} representing the artifact
+	 * @return a future completed with the resolved artifact in the local repository, or
+	 * exceptionally with an {@link IllegalStateException} if the resolution fails
+	 */
+	CompletableFuture<File> resolveAsync(MavenResource resource) {
+		Assert.notNull(resource, "MavenResource must not be null");
+		validateCoordinates(resource);
+		// every caller gets its own future, so that completing or cancelling it affects no one else
+		CompletableFuture<File> dependent = new CompletableFuture<>();
+		doResolveAsync(resource).whenComplete((file, e) -> {
+			if (e != null) {
+				dependent.completeExceptionally(e);
+			}
+			else {
+				artifactResolved(resource, file);
+				dependent.complete(file);
+			}
+		});
+		return dependent;
+	}
+
+	private CompletableFuture<File> doResolveAsync(MavenResource resource) {
+		File cached = this.resolvedArtifacts.get(resource);
+		if (cached != null) {
+			return CompletableFuture.completedFuture(cached);
+		}
+		CompletableFuture<File> resolution = new CompletableFuture<>();
+		CompletableFuture<File> inFlight = this.inFlightResolutions.putIfAbsent(resource, resolution);
+		if (inFlight != null) {
+			return inFlight;
+		}
+		// a resolution may have completed between the cache lookup and the registration above
+		cached = this.resolvedArtifacts.get(resource);
+		if (cached != null) {
+			this.inFlightResolutions.remove(resource, resolution);
+			resolution.complete(cached);
+			return resolution;
+		}
+		this.executor.submit(() -> doResolve(resource)).whenComplete((file, e) -> {
+			// deregister before completing, so a caller seeing a failure can start a new resolution
+			this.inFlightResolutions.remove(resource, resolution);
+			if (e != null) {
+				resolution.completeExceptionally(e);
+			}
+			else {
+				resolution.complete(file);
+			}
+		});
+		return resolution;
+	}
+
+	/**
+	 * Add a listener notified each time an artifact is served by this resolver.
+	 * @param listener the listener
+	 */
+	void addArtifactListener(MavenArtifactListener listener) {
+		Assert.notNull(listener, "MavenArtifactListener must not be null");
+		this.artifactListeners.add(listener);
+	}
+
+	private void artifactResolved(MavenResource resource, File file) {
+		for (MavenArtifactListener listener : this.artifactListeners) {
+			try {
+				listener.artifactResolved(resource, file);
+			}
+			catch (RuntimeException e) {
+				log.warn("Artifact listener failed for " + resource, e);
+			}
+		}
+	}
+
+	/**
+	 * Open a stream on an artifact. If {@link MavenProperties.Resolution#isStreaming()} is enabled, a
+	 * release artifact that is missing from the local repository is streamed while it is downloaded
+	 * into the local repository, otherwise the artifact is resolved first.
+	 * @param resource the {@link MavenResource} representing the artifact
+	 * @return a stream on the content of the artifact
+	 * @throws IllegalStateException if the artifact does not exist or the resolution fails
+	 */
+	InputStream openStream(MavenResource resource) throws IOException {
 		Assert.notNull(resource, "MavenResource must not be null");
 		validateCoordinates(resource);
+		if (!isStreamable(resource)) {
+			return resolve(resource).getInputStream();
+		}
+		File target = new File(localArtifactDirectory(resource), resource.getFilename());
+		if (target.exists()) {
+			return resolve(resource).getInputStream();
+		}
+		CompletableFuture<File> resolution = new CompletableFuture<>();
+		if (this.inFlightResolutions.putIfAbsent(resource, resolution) != null) {
+			return resolve(resource).getInputStream();
+		}
+		StreamingDownload download;
+		InputStream stream;
+		try {
+			File directory = target.getParentFile();
+			directory.mkdirs();
+			download = new StreamingDownload(File.createTempFile(resource.getFilename() + ".", ".part", directory));
+			// opened upfront, so that the download is not discarded before it can be read
+			stream = download.newInputStream();
+		}
+		catch (IOException | RuntimeException e) {
+			// otherwise every later resolution of the artifact would wait for one that never runs
+			this.inFlightResolutions.remove(resource, resolution);
+			resolution.completeExceptionally(e);
+			throw e;
+		}
+		this.executor.submit(() -> doStream(resource, target, download)).whenComplete((file, e) -> {
+			this.inFlightResolutions.remove(resource, resolution);
+			// before completing, so that the file is gone once the last reader has seen the outcome
+			download.discard();
+			if (e != null) {
+				download.fail(e);
+				resolution.completeExceptionally(e);
+			}
+			else {
+				download.complete();
+				resolution.complete(file);
+				artifactResolved(resource, file);
+			}
+		});
+		if (!download.awaitStarted()) {
+			stream.close();
+			// not available remotely (or failed early), report it like a regular resolution
+			return resolve(resource).getInputStream();
+		}
+		return stream;
+	}
+
+	private boolean isStreamable(MavenResource resource) {
+		return this.properties.getResolution().isStreaming() && !this.properties.isOffline()
+				&& !this.properties.isResolvePom() && !this.remoteRepositories.isEmpty()
+				&& !resource.getVersion().endsWith(SNAPSHOT) && this.resolvedArtifacts.get(resource) == null;
+	}
+
+	/**
+	 * Download an artifact from the first remote repository that has it, verify it against the SHA-1
+	 * checksum published by the repository, as far as the checksum policy in effect for the
+	 * repository asks for, and install it into the local repository.
+	 */
+	private File doStream(MavenResource resource, File target, StreamingDownload download) throws Exception {
+		DefaultRepositorySystemSession session = newRepositorySystemSession(this.repositorySystem,
+				this.properties.getLocalRepository());
+		URI location = URI.create(resource.getGroupId().replace('.', '/') + "/" + resource.getArtifactId()
+				+ "/" + resource.getVersion() + "/" + resource.getFilename());
+		Exception notFound = null;
+		for (RemoteRepository repository : this.remoteRepositories) {
+			if (!repository.getPolicy(false).isEnabled()) {
+				continue;
+			}
+			try (Transporter transporter = this.transporterProvider.newTransporter(session, repository)) {
+				GetTask task = new GetTask(location).setDataFile(download.getFile()).setListener(download);
+				try {
+					transporter.get(task);
+				}
+				catch (Exception e) {
+					if (transporter.classify(e) == Transporter.ERROR_NOT_FOUND) {
+						notFound = e;
+						continue;
+					}
+					throw e;
+				}
+				String checksumPolicy = StringUtils.hasText(session.getChecksumPolicy()) ? session.getChecksumPolicy()
+						: repository.getPolicy(false).getChecksumPolicy();
+				if (!RepositoryPolicy.CHECKSUM_POLICY_IGNORE.equals(checksumPolicy)) {
+					String expected = task.getChecksums().get("SHA-1");
+					if (expected == null) {
+						expected = fetchChecksum(transporter, location);
+					}
+					String actual = download.getSha1();
+					if (expected == null) {
+						checksumFailure(checksumPolicy, "No SHA-1 checksum published for " + resource + " in "
+								+ repository.getUrl());
+					}
+					else if (!expected.equalsIgnoreCase(actual)) {
+						checksumFailure(checksumPolicy, "Checksum validation failed for " + resource + " from "
+								+ repository.getUrl() + ", expected " + expected + " but was " + actual);
+					}
+				}
+				// copied rather than moved, as streams may still be reading the download
+				File copy = File.createTempFile(target.getName() + ".", ".tmp", target.getParentFile());
+				try {
+					Files.copy(download.getFile().toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+					Files.move(copy.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				}
+				finally {
+					copy.delete();
+				}
+				session.getLocalRepositoryManager().add(session, new LocalArtifactRegistration(
+						toJarArtifact(resource).setFile(target), repository, Collections.singleton("")));
+				this.resolvedArtifacts.put(resource, target);
+				return target;
+			}
+		}
+		throw notFound != null ? notFound : new IOException("No enabled remote repository for " + resource);
+	}
+
+	/**
+	 * Fail a streamed download if the checksum policy is {@code fail}, otherwise only warn about it,
+	 * like Aether does for resolved artifacts.
+	 */
+	private static void checksumFailure(String checksumPolicy, String message) throws IOException {
+		if (RepositoryPolicy.CHECKSUM_POLICY_FAIL.equals(checksumPolicy)) {
+			throw new IOException(message);
+		}
+		log.warn(message);
+	}
+
+	/**
+	 * @return the first token of the {@code .sha1} file next to the given location, or
+	 * {@code null} if there is none
+	 */
+	private String fetchChecksum(Transporter transporter, URI location) throws Exception {
+		GetTask task = new GetTask(URI.create(location + ".sha1"));
+		try {
+			transporter.get(task);
+		}
+		catch (Exception e) {
+			if (transporter.classify(e) == Transporter.ERROR_NOT_FOUND) {
+				return null;
+			}
+			throw e;
+		}
+		String checksum = task.getDataString().trim();
+		int end = 0;
+		while (end < checksum.length() && !Character.isWhitespace(checksum.charAt(end))) {
+			end++;
+		}
+		return checksum.substring(0, end);
+	}
+
+	private File doResolve(MavenResource resource) {
+		if (this.properties.getResolution().isLocalFirst()) {
+			File local = findLocalRelease(resource);
+			if (local != null) {
+				this.resolvedArtifacts.put(resource, local);
+				return local;
+			}
+		}
 		RepositorySystemSession session = newRepositorySystemSession(this.repositorySystem,
 				this.properties.getLocalRepository());
 		ArtifactResult resolvedArtifact;
@@ -297,21 +647,259 @@ class MavenArtifactResolver {
 			resolvedArtifact = results.get(results.size() - 1);
 		}
 		catch (ArtifactResolutionException e) {
+			throw resolutionFailure(resource, e);
+		}
+		File file = resolvedArtifact.getArtifact().getFile();
+		this.resolvedArtifacts.put(resource, file);
+		return file;
+	}
+
+	/**
+	 * Resolve several artifacts at once. All artifacts that are not already cached are submitted
+	 * to Aether in a single request, which allows the repository connector to download them in
+	 * parallel. The request counts as one resolution against the configured parallelism. Artifacts
+	 * already being resolved by another caller are awaited rather than requested again. A failure
+	 * to resolve one artifact does not affect the others.
+	 * @param resources the {@link MavenResource}s representing the artifacts
+	 * @return the resolved files and the failures, keyed by resource
+	 */
+	MavenResolutionResult resolveAll(Collection<MavenResource> resources) {
+		Assert.notNull(resources, "MavenResources must not be null");
+		Map<MavenResource, File> resolved = new LinkedHashMap<>();
+		Map<MavenResource, Exception> failures = new LinkedHashMap<>();
+		List<MavenResource> pending = new ArrayList<>();
+		List<ArtifactRequest> artifactRequests = new ArrayList<>();
+		Map<MavenResource, CompletableFuture<File>> registered = new LinkedHashMap<>();
+		Map<MavenResource, CompletableFuture<File>> joined = new LinkedHashMap<>();
+		for (MavenResource resource : resources) {
+			Assert.notNull(resource, "MavenResource must not be null");
+		}
+		for (MavenResource resource : new LinkedHashSet<>(resources)) {
+			try {
+				validateCoordinates(resource);
+			}
+			catch (IllegalArgumentException e) {
+				failures.put(resource, e);
+				continue;
+			}
+			File cached = this.resolvedArtifacts.get(resource);
+			if (cached != null) {
+				resolved.put(resource, cached);
+				continue;
+			}
+			CompletableFuture<File> resolution = new CompletableFuture<>();
+			CompletableFuture<File> inFlight = this.inFlightResolutions.putIfAbsent(resource, resolution);
+			if (inFlight != null) {
+				joined.put(resource, inFlight);
+				continue;
+			}
+			registered.put(resource, resolution);
+			pending.add(resource);
+			if (properties.isResolvePom()) {
+				artifactRequests.add(new ArtifactRequest(toPomArtifact(resource),
+						this.remoteRepositories,
+						JavaScopes.RUNTIME));
+			}
+			artifactRequests.add(new ArtifactRequest(toJarArtifact(resource),
+					this.remoteRepositories,
+					JavaScopes.RUNTIME));
+		}
+		if (!pending.isEmpty()) {
+			try {
+				await(this.executor.submit(() -> {
+					resolvePending(pending, artifactRequests, resolved, failures);
+					return null;
+				}));
+			}
+			catch (RuntimeException | Error e) {
+				for (Map.Entry<MavenResource, CompletableFuture<File>> entry : registered.entrySet()) {
+					this.inFlightResolutions.remove(entry.getKey(), entry.getValue());
+					entry.getValue().completeExceptionally(e);
+				}
+				throw e;
+			}
+			for (Map.Entry<MavenResource, CompletableFuture<File>> entry : registered.entrySet()) {
+				this.inFlightResolutions.remove(entry.getKey(), entry.getValue());
+				File file = resolved.get(entry.getKey());
+				if (file != null) {
+					entry.getValue().complete(file);
+				}
+				else {
+					entry.getValue().completeExceptionally(failures.get(entry.getKey()));
+				}
+			}
+		}
+		for (Map.Entry<MavenResource, CompletableFuture<File>> entry : joined.entrySet()) {
+			try {
+				resolved.put(entry.getKey(), await(entry.getValue()));
+			}
+			catch (RuntimeException e) {
+				failures.put(entry.getKey(), e);
+			}
+		}
+		for (Map.Entry<MavenResource, File> entry : resolved.entrySet()) {
+			artifactResolved(entry.getKey(), entry.getValue());
+		}
+		return new MavenResolutionResult(resolved, failures);
+	}
+
+	private void resolvePending(List<MavenResource> pending, List<ArtifactRequest> artifactRequests,
+			Map<MavenResource, File> resolved, Map<MavenResource, Exception> failures) {
+		RepositorySystemSession session = newRepositorySystemSession(this.repositorySystem,
+				this.properties.getLocalRepository());
+		List<ArtifactResult> results;
+		try {
+			results = this.repositorySystem.resolveArtifacts(session, artifactRequests);
+		}
+		catch (ArtifactResolutionException e) {
+			results = e.getResults();
+			if (results == null || results.size() != artifactRequests.size()) {
+				for (MavenResource resource : pending) {
+					failures.put(resource, resolutionFailure(resource, e));
+				}
+				return;
+			}
+		}
+		// results are returned in the order of the requests
+		int index = 0;
+		for (MavenResource resource : pending) {
+			List<ArtifactResult> resourceResults = new ArrayList<>(2);
+			if (properties.isResolvePom()) {
+				resourceResults.add(results.get(index++));
+			}
+			ArtifactResult resolvedArtifact = results.get(index++);
+			resourceResults.add(resolvedArtifact);
+			boolean allResolved = true;
+			for (ArtifactResult result : resourceResults) {
+				allResolved &= result.isResolved();
+			}
+			if (allResolved) {
+				File file = resolvedArtifact.getArtifact().getFile();
+				this.resolvedArtifacts.put(resource, file);
+				resolved.put(resource, file);
+			}
+			else {
+				failures.put(resource, resolutionFailure(resource, new ArtifactResolutionException(resourceResults)));
+			}
+		}
+	}
 
-			ChoiceFormat pluralizer = new ChoiceFormat(
-					new double[] { 0d, 1d, ChoiceFormat.nextDouble(1d) },
-					new String[] { "repositories: ", "repository: ", "repositories: " });
-			MessageFormat messageFormat = new MessageFormat(
-					"Failed to resolve MavenResource: {0}. Configured remote {1}: {2}");
-			messageFormat.setFormat(1, pluralizer);
-			String repos = properties.getRemoteRepositories().isEmpty()
-					? "none"
-					: StringUtils.collectionToDelimitedString(properties.getRemoteRepositories().keySet(), ",", "[", "]");
-			throw new IllegalStateException(
-					messageFormat.format(new Object[] { resource, properties.getRemoteRepositories().size(), repos }),
-					e);
+	/**
+	 * Look up a release artifact directly in the local repository layout, bypassing Aether. The
+	 * artifact is only used if it passes verification against its SHA-1 checksum file (when
+	 * present), and if the POM is present as well when {@link MavenProperties#isResolvePom()}.
+	 * @return the artifact in the local repository, or {@code null} if Aether should be used
+	 */
+	private File findLocalRelease(MavenResource resource) {
+		if (resource.getVersion().endsWith(SNAPSHOT)) {
+			return null;
+		}
+		File directory = localArtifactDirectory(resource);
+		File artifact = new File(directory, resource.getFilename());
+		if (!artifact.isFile() || !hasValidChecksum(artifact)) {
+			return null;
+		}
+		if (this.properties.isResolvePom()) {
+			File pom = new File(directory, resource.getArtifactId() + "-" + resource.getVersion() + ".pom");
+			if (!pom.isFile() || !hasValidChecksum(pom)) {
+				return null;
+			}
 		}
-		return toResource(resolvedArtifact);
+		if (log.isDebugEnabled()) {
+			log.debug("Using " + artifact + " from the local repository for " + resource);
+		}
+		return artifact;
+	}
+
+	private File localArtifactDirectory(MavenResource resource) {
+		return new File(this.properties.getLocalRepository(), resource.getGroupId().replace('.', File.separatorChar)
+				+ File.separator + resource.getArtifactId() + File.separator + resource.getVersion());
+	}
+
+	private boolean hasValidChecksum(File file) {
+		File checksumFile = new File(file.getPath() + ".sha1");
+		if (!checksumFile.isFile()) {
+			return true;
+		}
+		try {
+			String expected = new String(Files.readAllBytes(checksumFile.toPath()), StandardCharsets.US_ASCII).trim();
+			// checksum files may contain the file name after the checksum
+			int end = 0;
+			while (end < expected.length() && !Character.isWhitespace(expected.charAt(end))) {
+				end++;
+			}
+			expected = expected.substring(0, end);
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			byte[] buffer = new byte[64 * 1024];
+			try (InputStream is = new FileInputStream(file)) {
+				int read;
+				while ((read = is.read(buffer)) != -1) {
+					digest.update(buffer, 0, read);
+				}
+			}
+			boolean valid = expected.equalsIgnoreCase(toHex(digest.digest()));
+			if (!valid) {
+				log.warn("Checksum mismatch for " + file + " in the local repository, resolving it again");
+			}
+			return valid;
+		}
+		catch (IOException | NoSuchAlgorithmException e) {
+			log.warn("Could not verify the checksum of " + file + ", resolving it again", e);
+			return false;
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	/**
+	 * Wait for the outcome of a resolution, rethrowing its failure.
+	 */
+	private static <T> T await(Future<T> future) {
+		try {
+			return future.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for artifact resolution", e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * @return statistics about the resolutions performed by this resolver
+	 */
+	MavenResolutionMetrics getMetrics() {
+		return this.executor.getMetrics();
+	}
+
+	private IllegalStateException resolutionFailure(MavenResource resource, ArtifactResolutionException e) {
+		ChoiceFormat pluralizer = new ChoiceFormat(
+				new double[] { 0d, 1d, ChoiceFormat.nextDouble(1d) },
+				new String[] { "repositories: ", "repository: ", "repositories: " });
+		MessageFormat messageFormat = new MessageFormat(
+				"Failed to resolve MavenResource: {0}. Configured remote {1}: {2}");
+		messageFormat.setFormat(1, pluralizer);
+		String repos = properties.getRemoteRepositories().isEmpty()
+				? "none"
+				: StringUtils.collectionToDelimitedString(properties.getRemoteRepositories().keySet(), ",", "[", "]");
+		return new IllegalStateException(
+				messageFormat.format(new Object[] { resource, properties.getRemoteRepositories().size(), repos }),
+				e);
 	}
 
 	private void validateCoordinates(MavenResource resource) {
@@ -321,10 +909,6 @@ class MavenArtifactResolver {
 		Assert.hasText(resource.getVersion(), "version must not be blank.");
 	}
 
-	public FileSystemResource toResource(ArtifactResult resolvedArtifact) {
-		return new FileSystemResource(resolvedArtifact.getArtifact().getFile());
-	}
-
 	private Artifact toJarArtifact(MavenResource resource) {
 		return toArtifact(resource, resource.getExtension());
 	}
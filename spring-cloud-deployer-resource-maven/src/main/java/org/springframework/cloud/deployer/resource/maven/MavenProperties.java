@@ -74,6 +74,18 @@ public class MavenProperties {
 	 */
 	private boolean resolvePom;
 
+	/**
+	 * Resolution settings such as the in-memory cache of resolved artifacts and the number of
+	 * concurrent resolutions.
+	 */
+	private Resolution resolution = new Resolution();
+
+	/**
+	 * Settings of the HTTP connections to remote repositories, which are pooled and kept alive
+	 * across resolutions.
+	 */
+	private ConnectionPool connectionPool = new ConnectionPool();
+
 	public String updatePolicy;
 
 	public String checksumPolicy;
@@ -150,6 +162,156 @@ public class MavenProperties {
 		this.resolvePom = resolvePom;
 	}
 
+	public Resolution getResolution() {
+		return this.resolution;
+	}
+
+	public void setResolution(Resolution resolution) {
+		this.resolution = resolution;
+	}
+
+	public ConnectionPool getConnectionPool() {
+		return this.connectionPool;
+	}
+
+	public void setConnectionPool(ConnectionPool connectionPool) {
+		this.connectionPool = connectionPool;
+	}
+
+	public static class Resolution {
+
+		/**
+		 * Maximum number of resolved artifacts to keep in memory, so that repeated resolutions of
+		 * the same coordinates do not go through Aether. Set to 0 to disable the cache.
+		 */
+		private int cacheSize = 256;
+
+		/**
+		 * Time in milliseconds a resolved SNAPSHOT artifact is served from the in-memory cache before
+		 * it is resolved again. Release artifacts are cached until evicted. Set to 0 to never cache
+		 * SNAPSHOT artifacts.
+		 */
+		private long snapshotCacheTtl = 60000;
+
+		/**
+		 * Maximum number of artifact resolutions (and thus downloads) running concurrently.
+		 */
+		private int parallelism = 4;
+
+		/**
+		 * Whether resolutions should run on virtual threads. Only effective on JDK 21 or later,
+		 * the number of concurrent resolutions is still bounded by {@link #parallelism}.
+		 */
+		private boolean virtualThreads;
+
+		/**
+		 * Whether release artifacts already present in the local repository should be used
+		 * directly, skipping the Aether session and update policy checks. The file is verified
+		 * against its SHA-1 checksum file when one exists, and Aether is used on a miss.
+		 */
+		private boolean localFirst;
+
+		/**
+		 * Whether {@link MavenResource#getInputStream()} should return the content of a release
+		 * artifact missing from the local repository while it is being downloaded, rather than
+		 * after the download has completed. The artifact is still installed into the local
+		 * repository once it has been verified against its SHA-1 checksum.
+		 */
+		private boolean streaming;
+
+		public int getCacheSize() {
+			return this.cacheSize;
+		}
+
+		public void setCacheSize(int cacheSize) {
+			this.cacheSize = cacheSize;
+		}
+
+		public long getSnapshotCacheTtl() {
+			return this.snapshotCacheTtl;
+		}
+
+		public void setSnapshotCacheTtl(long snapshotCacheTtl) {
+			this.snapshotCacheTtl = snapshotCacheTtl;
+		}
+
+		public int getParallelism() {
+			return this.parallelism;
+		}
+
+		public void setParallelism(int parallelism) {
+			this.parallelism = parallelism;
+		}
+
+		public boolean isVirtualThreads() {
+			return this.virtualThreads;
+		}
+
+		public void setVirtualThreads(boolean virtualThreads) {
+			this.virtualThreads = virtualThreads;
+		}
+
+		public boolean isLocalFirst() {
+			return this.localFirst;
+		}
+
+		public void setLocalFirst(boolean localFirst) {
+			this.localFirst = localFirst;
+		}
+
+		public boolean isStreaming() {
+			return this.streaming;
+		}
+
+		public void setStreaming(boolean streaming) {
+			this.streaming = streaming;
+		}
+	}
+
+	public static class ConnectionPool {
+
+		/**
+		 * Whether HTTP connections to remote repositories should be reused across resolutions. When
+		 * disabled, every resolution opens new connections and closes them when it completes.
+		 */
+		private boolean enabled = true;
+
+		/**
+		 * Maximum number of pooled connections per remote repository host. By default the limit of
+		 * the Aether HTTP transporter is kept; a limit set here is applied through its private state.
+		 */
+		private int maxConnectionsPerRoute;
+
+		/**
+		 * Time in milliseconds a pooled connection may stay idle before it is closed.
+		 */
+		private long idleTimeout = 30000;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxConnectionsPerRoute() {
+			return this.maxConnectionsPerRoute;
+		}
+
+		public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+			this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+		}
+
+		public long getIdleTimeout() {
+			return this.idleTimeout;
+		}
+
+		public void setIdleTimeout(long idleTimeout) {
+			this.idleTimeout = idleTimeout;
+		}
+	}
+
 	public static class Proxy {
 
 		/**
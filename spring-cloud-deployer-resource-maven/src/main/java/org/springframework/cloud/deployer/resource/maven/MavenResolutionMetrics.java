@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics about the artifact resolutions performed by a {@link MavenResourceLoader}. Queue
+ * wait is the time a resolution waited for one of the
+ * {@link MavenProperties.Resolution#getParallelism() available slots}, resolution time is the
+ * time spent resolving (and possibly downloading) the artifact once it got one.
+ */
+public class MavenResolutionMetrics {
+
+	private final AtomicInteger queued = new AtomicInteger();
+
+	private final AtomicInteger active = new AtomicInteger();
+
+	private final LongAdder completed = new LongAdder();
+
+	private final LongAdder failed = new LongAdder();
+
+	private final LongAdder totalQueueWaitNanos = new LongAdder();
+
+	private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+	private final LongAdder totalResolutionNanos = new LongAdder();
+
+	private final AtomicLong maxResolutionNanos = new AtomicLong();
+
+	void queued() {
+		this.queued.incrementAndGet();
+	}
+
+	void started(long queueWaitNanos) {
+		this.queued.decrementAndGet();
+		this.active.incrementAndGet();
+		this.totalQueueWaitNanos.add(queueWaitNanos);
+		updateMax(this.maxQueueWaitNanos, queueWaitNanos);
+	}
+
+	void finished(long resolutionNanos, boolean success) {
+		this.active.decrementAndGet();
+		(success ? this.completed : this.failed).increment();
+		this.totalResolutionNanos.add(resolutionNanos);
+		updateMax(this.maxResolutionNanos, resolutionNanos);
+	}
+
+	private static void updateMax(AtomicLong max, long value) {
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * @return the number of resolutions waiting for a free slot
+	 */
+	public int getQueuedResolutions() {
+		return this.queued.get();
+	}
+
+	/**
+	 * @return the number of resolutions currently running
+	 */
+	public int getActiveResolutions() {
+		return this.active.get();
+	}
+
+	/**
+	 * @return the number of resolutions that completed successfully
+	 */
+	public long getCompletedResolutions() {
+		return this.completed.sum();
+	}
+
+	/**
+	 * @return the number of resolutions that failed
+	 */
+	public long getFailedResolutions() {
+		return this.failed.sum();
+	}
+
+	/**
+	 * @return the accumulated time resolutions waited for a free slot
+	 */
+	public Duration getTotalQueueWaitTime() {
+		return Duration.ofNanos(this.totalQueueWaitNanos.sum());
+	}
+
+	/**
+	 * @return the longest time a single resolution waited for a free slot
+	 */
+	public Duration getMaxQueueWaitTime() {
+		return Duration.ofNanos(this.maxQueueWaitNanos.get());
+	}
+
+	/**
+	 * @return the accumulated time spent resolving and downloading artifacts
+	 */
+	public Duration getTotalResolutionTime() {
+		return Duration.ofNanos(this.totalResolutionNanos.sum());
+	}
+
+	/**
+	 * @return the longest time spent resolving and downloading a single artifact
+	 */
+	public Duration getMaxResolutionTime() {
+		return Duration.ofNanos(this.maxResolutionNanos.get());
+	}
+
+	@Override
+	public String toString() {
+		return "MavenResolutionMetrics{queued=" + getQueuedResolutions() + ", active=" + getActiveResolutions()
+				+ ", completed=" + getCompletedResolutions() + ", failed=" + getFailedResolutions()
+				+ ", totalQueueWait=" + getTotalQueueWaitTime() + ", maxQueueWait=" + getMaxQueueWaitTime()
+				+ ", totalResolution=" + getTotalResolutionTime() + ", maxResolution=" + getMaxResolutionTime() + "}";
+	}
+}
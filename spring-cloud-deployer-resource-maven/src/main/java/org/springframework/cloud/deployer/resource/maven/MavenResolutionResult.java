@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The outcome of resolving several {@link MavenResource}s at once, see
+ * {@link MavenResourceLoader#resolveAll(java.util.Collection)}.
+ */
+public class MavenResolutionResult {
+
+	private final Map<MavenResource, File> resolved;
+
+	private final Map<MavenResource, Exception> failures;
+
+	MavenResolutionResult(Map<MavenResource, File> resolved, Map<MavenResource, Exception> failures) {
+		this.resolved = Collections.unmodifiableMap(resolved);
+		this.failures = Collections.unmodifiableMap(failures);
+	}
+
+	/**
+	 * Return the files in the local repository of all resources that were resolved.
+	 *
+	 * @return map of resources to resolved files
+	 */
+	public Map<MavenResource, File> getResolved() {
+		return this.resolved;
+	}
+
+	/**
+	 * Return the reason of failure for all resources that could not be resolved.
+	 *
+	 * @return map of resources to the exception describing the failure
+	 */
+	public Map<MavenResource, Exception> getFailures() {
+		return this.failures;
+	}
+
+	/**
+	 * @return {@code true} if at least one resource could not be resolved
+	 */
+	public boolean hasFailures() {
+		return !this.failures.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "MavenResolutionResult{resolved=" + this.resolved.keySet() + ", failures=" + this.failures.keySet() + "}";
+	}
+}
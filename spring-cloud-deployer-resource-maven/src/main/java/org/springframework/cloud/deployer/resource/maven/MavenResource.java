@@ -20,8 +20,6 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.springframework.core.io.AbstractResource;
 import org.springframework.core.io.Resource;
@@ -98,6 +96,16 @@ public class MavenResource extends AbstractResource {
 
 	private final MavenArtifactResolver resolver;
 
+	/**
+	 * Lazily computed values derived from the (immutable) coordinates. Racy initialization is fine,
+	 * as every thread computes the same value.
+	 */
+	private String coordinates;
+
+	private int hash;
+
+	private URI uri;
+
 	/**
 	 * Construct a {@code MavenResource} object.
 	 *
@@ -106,20 +114,21 @@ public class MavenResource extends AbstractResource {
 	 * @param extension the file extension
 	 * @param classifier artifact classifier - can be null
 	 * @param version artifact version
-	 * @param properties Maven configuration properties
+	 * @param resolver the shared resolver used to locate the artifact
 	 */
-	private MavenResource(String groupId, String artifactId, String extension, String classifier,
-			String version, MavenProperties properties) {
+	MavenResource(String groupId, String artifactId, String extension, String classifier,
+			String version, MavenArtifactResolver resolver) {
 		Assert.hasText(groupId, "groupId must not be blank");
 		Assert.hasText(artifactId, "artifactId must not be blank");
 		Assert.hasText(extension, "extension must not be blank");
 		Assert.hasText(version, "version must not be blank");
+		Assert.notNull(resolver, "resolver must not be null");
 		this.groupId = groupId;
 		this.artifactId = artifactId;
 		this.extension = extension;
 		this.classifier = classifier == null ? EMPTY_CLASSIFIER : classifier;
 		this.version = version;
-		this.resolver = new MavenArtifactResolver(properties != null ? properties : new MavenProperties());
+		this.resolver = resolver;
 	}
 
 	/**
@@ -164,7 +173,7 @@ public class MavenResource extends AbstractResource {
 
 	@Override
 	public InputStream getInputStream() throws IOException {
-		return resolver.resolve(this).getInputStream();
+		return resolver.openStream(this);
 	}
 
 	@Override
@@ -208,13 +217,17 @@ public class MavenResource extends AbstractResource {
 
 	@Override
 	public int hashCode() {
-		int result = groupId.hashCode();
-		result = 31 * result + artifactId.hashCode();
-		result = 31 * result + extension.hashCode();
-		if (StringUtils.hasLength(classifier)) {
-			result = 31 * result + classifier.hashCode();
+		int result = this.hash;
+		if (result == 0) {
+			result = groupId.hashCode();
+			result = 31 * result + artifactId.hashCode();
+			result = 31 * result + extension.hashCode();
+			if (StringUtils.hasLength(classifier)) {
+				result = 31 * result + classifier.hashCode();
+			}
+			result = 31 * result + version.hashCode();
+			this.hash = result;
 		}
-		result = 31 * result + version.hashCode();
 		return result;
 	}
 
@@ -225,14 +238,28 @@ public class MavenResource extends AbstractResource {
 	 */
 	@Override
 	public String toString() {
-		return StringUtils.hasLength(classifier) ?
-				String.format("%s:%s:%s:%s:%s", groupId, artifactId, extension, classifier, version) :
-				String.format("%s:%s:%s:%s", groupId, artifactId, extension, version);
+		String coordinates = this.coordinates;
+		if (coordinates == null) {
+			StringBuilder builder = new StringBuilder(groupId.length() + artifactId.length() + extension.length()
+					+ classifier.length() + version.length() + 4);
+			builder.append(groupId).append(':').append(artifactId).append(':').append(extension).append(':');
+			if (StringUtils.hasLength(classifier)) {
+				builder.append(classifier).append(':');
+			}
+			coordinates = builder.append(version).toString();
+			this.coordinates = coordinates;
+		}
+		return coordinates;
 	}
 
 	@Override
 	public URI getURI() throws IOException {
-		return URI.create(URI_SCHEME + "://" + toString());
+		URI uri = this.uri;
+		if (uri == null) {
+			uri = URI.create(URI_SCHEME + "://" + toString());
+			this.uri = uri;
+		}
+		return uri;
 	}
 
 	/**
@@ -243,7 +270,7 @@ public class MavenResource extends AbstractResource {
 	 * @return the {@link MavenResource}
 	 */
 	public static MavenResource parse(String coordinates) {
-		return parse(coordinates, null);
+		return parse(coordinates, (MavenProperties) null);
 	}
 			
 	/**
@@ -255,17 +282,50 @@ public class MavenResource extends AbstractResource {
 	 * @return the {@link MavenResource}
 	 */
 	public static MavenResource parse(String coordinates, MavenProperties properties) {
+		return parse(coordinates, MavenArtifactResolver.forProperties(properties));
+	}
+
+	/**
+	 * Create a {@link MavenResource} for the provided coordinates that is resolved with the given
+	 * (shared) resolver.
+	 */
+	static MavenResource parse(String coordinates, MavenArtifactResolver resolver) {
 		Assert.hasText(coordinates, "coordinates are required");
-		Pattern p = Pattern.compile("([^: ]+):([^: ]+)(:([^: ]*)(:([^: ]+))?)?:([^: ]+)");
-		Matcher m = p.matcher(coordinates);
-		Assert.isTrue(m.matches(), "Bad artifact coordinates " + coordinates
+		// single pass over the coordinates, recording the positions of up to four separators
+		int length = coordinates.length();
+		int[] separators = new int[4];
+		int count = 0;
+		for (int i = 0; i < length; i++) {
+			char c = coordinates.charAt(i);
+			if (c == ':') {
+				if (count == separators.length) {
+					throw badCoordinates(coordinates);
+				}
+				separators[count++] = i;
+			}
+			else if (c == ' ') {
+				throw badCoordinates(coordinates);
+			}
+		}
+		if (count < 2) {
+			throw badCoordinates(coordinates);
+		}
+		String groupId = coordinates.substring(0, separators[0]);
+		String artifactId = coordinates.substring(separators[0] + 1, separators[1]);
+		String extension = count > 2 ? coordinates.substring(separators[1] + 1, separators[2]) : DEFAULT_EXTENSION;
+		String classifier = count > 3 ? coordinates.substring(separators[2] + 1, separators[3]) : EMPTY_CLASSIFIER;
+		String version = coordinates.substring(separators[count - 1] + 1);
+		// the extension may be empty, the classifier only if it is omitted
+		if (groupId.isEmpty() || artifactId.isEmpty() || version.isEmpty() || (count > 3 && classifier.isEmpty())) {
+			throw badCoordinates(coordinates);
+		}
+		return new MavenResource(groupId, artifactId, extension.isEmpty() ? DEFAULT_EXTENSION : extension,
+				classifier, version, resolver);
+	}
+
+	private static IllegalArgumentException badCoordinates(String coordinates) {
+		return new IllegalArgumentException("Bad artifact coordinates " + coordinates
 				+ ", expected format is <groupId>:<artifactId>[:<extension>[:<classifier>]]:<version>");
-		String groupId = m.group(1);
-		String artifactId = m.group(2);
-		String extension = StringUtils.hasLength(m.group(4)) ? m.group(4) : DEFAULT_EXTENSION;
-		String classifier = StringUtils.hasLength(m.group(6)) ? m.group(6) : EMPTY_CLASSIFIER;
-		String version = m.group(7);
-		return new MavenResource(groupId, artifactId, extension, classifier, version, properties);
 	}
 
 	public static class Builder {
@@ -316,7 +376,8 @@ public class MavenResource extends AbstractResource {
 		}
 
 		public MavenResource build() {
-			return new MavenResource(groupId, artifactId, extension, classifier, version, properties);
+			return new MavenResource(groupId, artifactId, extension, classifier, version,
+					MavenArtifactResolver.forProperties(properties));
 		}
 	}
 }
@@ -16,15 +16,22 @@
 
 package org.springframework.cloud.deployer.resource.maven;
 
+import java.io.File;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
  * A {@link ResourceLoader} that loads {@link MavenResource}s from locations of the format
  * {@literal maven://<coordinates>} where the value for "coordinates" conforms to the rules
- * described on {@link MavenResource#parse(String)} 
+ * described on {@link MavenResource#parse(String)}. All resources created by a loader share
+ * a single artifact resolver, so repository and session infrastructure is only set up once.
  *
  * @author Mark Fisher
  */
@@ -32,10 +39,20 @@ public class MavenResourceLoader implements ResourceLoader {
 
 	private static final String URI_SCHEME = "maven";
 
+	private static final String URI_PREFIX = URI_SCHEME + ":";
+
 	private final MavenProperties properties;
 
 	private final ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
 
+	private volatile MavenArtifactResolver resolver;
+
+	/**
+	 * Canonical resources by coordinates, so that locations looked up repeatedly (e.g. by an app
+	 * registry) are only parsed once and map to the same instance.
+	 */
+	private final Map<String, MavenResource> resources = new ConcurrentReferenceHashMap<>();
+
 	/**
 	 * Create a {@link MavenResourceLoader} that uses the provided {@link MavenProperties}.
 	 *
@@ -47,7 +64,8 @@ public class MavenResourceLoader implements ResourceLoader {
 	}
 
 	/**
-	 * Returns a {@link MavenResource} for the provided location.
+	 * Returns a {@link MavenResource} for the provided location. Repeated lookups of the same
+	 * location return the same instance for as long as memory permits.
 	 *
 	 * @param location the coordinates conforming to the rules described on
 	 * {@link MavenResource#parse(String)}. May optionally be preceded by {@value #URI_SCHEME}
@@ -58,8 +76,65 @@ public class MavenResourceLoader implements ResourceLoader {
 	@Override
 	public Resource getResource(String location) {
 		Assert.hasText(location, "location is required");
-		String coordinates = location.replaceFirst(URI_SCHEME + ":\\/*", "");
-		return MavenResource.parse(coordinates, this.properties);
+		String coordinates = location;
+		if (location.startsWith(URI_PREFIX)) {
+			int start = URI_PREFIX.length();
+			while (start < location.length() && location.charAt(start) == '/') {
+				start++;
+			}
+			coordinates = location.substring(start);
+		}
+		MavenResource resource = this.resources.get(coordinates);
+		if (resource == null) {
+			resource = MavenResource.parse(coordinates, getResolver());
+			MavenResource existing = this.resources.putIfAbsent(coordinates, resource);
+			if (existing != null) {
+				resource = existing;
+			}
+		}
+		return resource;
+	}
+
+	/**
+	 * Resolves the provided resources in a single request, letting the underlying repository
+	 * connector download missing artifacts in parallel rather than one at a time.
+	 *
+	 * @param resources the resources to resolve
+	 * @return the resolved files and per-resource failures
+	 */
+	public MavenResolutionResult resolveAll(Collection<MavenResource> resources) {
+		return getResolver().resolveAll(resources);
+	}
+
+	/**
+	 * Resolves the provided resource without blocking the calling thread. Independent resolutions
+	 * run concurrently, up to {@link MavenProperties.Resolution#getParallelism()} at a time.
+	 *
+	 * @param resource the resource to resolve
+	 * @return a future completed with the artifact in the local repository
+	 */
+	public CompletableFuture<File> resolveAsync(MavenResource resource) {
+		return getResolver().resolveAsync(resource);
+	}
+
+	/**
+	 * Returns statistics about queue wait and resolution time of the resolutions performed
+	 * through this loader, and any other loader sharing the same {@link MavenProperties}.
+	 *
+	 * @return the resolution metrics
+	 */
+	public MavenResolutionMetrics getResolutionMetrics() {
+		return getResolver().getMetrics();
+	}
+
+	/**
+	 * Adds a listener notified each time an artifact is served from the local repository through
+	 * this loader, or any other loader sharing the same {@link MavenProperties}.
+	 *
+	 * @param listener the listener
+	 */
+	public void addArtifactListener(MavenArtifactListener listener) {
+		getResolver().addArtifactListener(listener);
 	}
 
 	/**
@@ -70,4 +145,17 @@ public class MavenResourceLoader implements ResourceLoader {
 		return this.classLoader;
 	}
 
+	/**
+	 * Return the resolver shared by all resources created by this loader. It is created lazily so
+	 * that the local repository is not touched until the first resource is requested.
+	 */
+	MavenArtifactResolver getResolver() {
+		MavenArtifactResolver resolver = this.resolver;
+		if (resolver == null) {
+			resolver = MavenArtifactResolver.forProperties(this.properties);
+			this.resolver = resolver;
+		}
+		return resolver;
+	}
+
 }
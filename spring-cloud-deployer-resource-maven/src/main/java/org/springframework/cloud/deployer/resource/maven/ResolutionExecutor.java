@@ -0,0 +1,152 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Runs artifact resolutions with a global cap on the number of concurrent resolutions, either on a
+ * pool of daemon platform threads or, on JDK 21 and later, on virtual threads gated by a semaphore.
+ * Threads of the platform pool time out when idle, so an unused executor does not need to be shut
+ * down.
+ */
+class ResolutionExecutor {
+
+	private static final Log log = LogFactory.getLog(ResolutionExecutor.class);
+
+	private static final AtomicInteger threadCount = new AtomicInteger();
+
+	private final ExecutorService executorService;
+
+	private final Semaphore permits;
+
+	private final MavenResolutionMetrics metrics = new MavenResolutionMetrics();
+
+	ResolutionExecutor(int parallelism, boolean virtualThreads) {
+		Assert.isTrue(parallelism > 0, "parallelism must be greater than 0");
+		ExecutorService virtualThreadExecutor = virtualThreads ? newVirtualThreadPerTaskExecutor() : null;
+		if (virtualThreadExecutor != null) {
+			this.executorService = virtualThreadExecutor;
+			this.permits = new Semaphore(parallelism);
+		}
+		else {
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(), new ResolverThreadFactory());
+			executor.allowCoreThreadTimeOut(true);
+			this.executorService = executor;
+			this.permits = null;
+		}
+	}
+
+	/**
+	 * Submit a resolution, completing the returned future with its outcome.
+	 */
+	<T> CompletableFuture<T> submit(Callable<T> resolution) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		long queuedAt = System.nanoTime();
+		this.metrics.queued();
+		this.executorService.execute(() -> {
+			boolean acquired = false;
+			try {
+				if (this.permits != null) {
+					this.permits.acquire();
+					acquired = true;
+				}
+				execute(resolution, future, queuedAt);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				this.metrics.started(System.nanoTime() - queuedAt);
+				this.metrics.finished(0, false);
+				future.completeExceptionally(e);
+			}
+			finally {
+				if (acquired) {
+					this.permits.release();
+				}
+			}
+		});
+		return future;
+	}
+
+	private <T> void execute(Callable<T> resolution, CompletableFuture<T> future, long queuedAt) {
+		long startedAt = System.nanoTime();
+		this.metrics.started(startedAt - queuedAt);
+		T result = null;
+		Throwable failure = null;
+		try {
+			result = resolution.call();
+		}
+		catch (Throwable e) {
+			failure = e;
+		}
+		long finishedAt = System.nanoTime();
+		// record before completing, so that callers observe up to date metrics
+		this.metrics.finished(finishedAt - startedAt, failure == null);
+		if (log.isDebugEnabled()) {
+			log.debug("Resolution " + (failure == null ? "completed" : "failed") + " after waiting "
+					+ TimeUnit.NANOSECONDS.toMillis(startedAt - queuedAt) + "ms and running "
+					+ TimeUnit.NANOSECONDS.toMillis(finishedAt - startedAt) + "ms");
+		}
+		if (failure != null) {
+			future.completeExceptionally(failure);
+		}
+		else {
+			future.complete(result);
+		}
+	}
+
+	MavenResolutionMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		Method factory = ReflectionUtils.findMethod(Executors.class, "newVirtualThreadPerTaskExecutor");
+		if (factory == null) {
+			log.warn("Virtual threads requested for Maven artifact resolution but not supported by this JVM, "
+					+ "using platform threads instead");
+			return null;
+		}
+		return (ExecutorService) ReflectionUtils.invokeMethod(factory, null);
+	}
+
+	private static class ResolverThreadFactory implements ThreadFactory {
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "maven-resolver-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
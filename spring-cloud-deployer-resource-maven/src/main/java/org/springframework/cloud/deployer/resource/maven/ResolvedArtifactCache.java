@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, least recently used cache of artifacts already resolved into the local repository,
+ * keyed by coordinates. Release artifacts stay cached until evicted, while SNAPSHOT artifacts
+ * expire after a configurable time to live so that updates are still picked up. Entries whose
+ * file has been removed from disk are treated as misses.
+ *
+ * @see MavenProperties.Resolution
+ */
+class ResolvedArtifactCache {
+
+	private static final String SNAPSHOT = "SNAPSHOT";
+
+	private final int maxEntries;
+
+	private final long snapshotTtlNanos;
+
+	private final Map<MavenResource, Entry> entries;
+
+	ResolvedArtifactCache(final int maxEntries, long snapshotTtlMillis) {
+		this.maxEntries = maxEntries;
+		this.snapshotTtlNanos = TimeUnit.MILLISECONDS.toNanos(snapshotTtlMillis);
+		this.entries = new LinkedHashMap<MavenResource, Entry>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<MavenResource, Entry> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Return the cached file for the given coordinates, or {@code null} if there is no entry,
+	 * the entry has expired, or the file no longer exists.
+	 */
+	File get(MavenResource resource) {
+		if (this.maxEntries <= 0) {
+			return null;
+		}
+		Entry entry;
+		synchronized (this.entries) {
+			entry = this.entries.get(resource);
+		}
+		if (entry == null) {
+			return null;
+		}
+		if (entry.isExpired(System.nanoTime()) || !entry.file.exists()) {
+			synchronized (this.entries) {
+				if (this.entries.get(resource) == entry) {
+					this.entries.remove(resource);
+				}
+			}
+			return null;
+		}
+		return entry.file;
+	}
+
+	void put(MavenResource resource, File file) {
+		if (this.maxEntries <= 0 || file == null) {
+			return;
+		}
+		long expiresAt = Long.MAX_VALUE;
+		if (resource.getVersion().endsWith(SNAPSHOT)) {
+			if (this.snapshotTtlNanos <= 0) {
+				return;
+			}
+			expiresAt = System.nanoTime() + this.snapshotTtlNanos;
+		}
+		synchronized (this.entries) {
+			this.entries.put(resource, new Entry(file, expiresAt));
+		}
+	}
+
+	void evict(MavenResource resource) {
+		synchronized (this.entries) {
+			this.entries.remove(resource);
+		}
+	}
+
+	int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	private static final class Entry {
+
+		private final File file;
+
+		private final long expiresAt;
+
+		Entry(File file, long expiresAt) {
+			this.file = file;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired(long now) {
+			return this.expiresAt != Long.MAX_VALUE && now - this.expiresAt >= 0;
+		}
+	}
+}
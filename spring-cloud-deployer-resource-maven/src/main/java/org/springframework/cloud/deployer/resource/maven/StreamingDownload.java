@@ -0,0 +1,239 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.eclipse.aether.spi.connector.transport.TransportListener;
+
+/**
+ * The state of an artifact download that is handed to the caller while it is still in progress.
+ * The transporter writes the artifact to a temporary file, and {@link #newInputStream()} returns a
+ * stream that reads the file as it grows and only reports the end of the stream once the download
+ * is complete and verified. A failed download surfaces as an {@link IOException} from the stream.
+ * <p>
+ * As a {@link TransportListener} it tracks the progress of the download and computes the SHA-1
+ * digest of the content on the fly.
+ */
+class StreamingDownload extends TransportListener {
+
+	private static final long POLL_INTERVAL = 100;
+
+	private final File file;
+
+	private final MessageDigest digest;
+
+	private final Object monitor = new Object();
+
+	private boolean started;
+
+	private boolean completed;
+
+	private Throwable failure;
+
+	private long progress;
+
+	private int openStreams;
+
+	private boolean discarded;
+
+	StreamingDownload(File file) {
+		this.file = file;
+		try {
+			this.digest = MessageDigest.getInstance("SHA-1");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	File getFile() {
+		return this.file;
+	}
+
+	@Override
+	public void transportStarted(long dataOffset, long dataLength) {
+		synchronized (this.monitor) {
+			this.digest.reset();
+			this.started = true;
+			this.monitor.notifyAll();
+		}
+	}
+
+	@Override
+	public void transportProgressed(ByteBuffer data) {
+		synchronized (this.monitor) {
+			this.digest.update(data.duplicate());
+			this.progress++;
+			this.monitor.notifyAll();
+		}
+	}
+
+	/**
+	 * @return the hex encoded SHA-1 digest of the content received so far
+	 */
+	String getSha1() {
+		synchronized (this.monitor) {
+			byte[] bytes;
+			try {
+				bytes = ((MessageDigest) this.digest.clone()).digest();
+			}
+			catch (CloneNotSupportedException e) {
+				throw new IllegalStateException(e);
+			}
+			StringBuilder hex = new StringBuilder(bytes.length * 2);
+			for (byte b : bytes) {
+				hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return hex.toString();
+		}
+	}
+
+	/**
+	 * Mark the download as complete, after which readers see the end of the stream.
+	 */
+	void complete() {
+		synchronized (this.monitor) {
+			this.completed = true;
+			this.monitor.notifyAll();
+		}
+	}
+
+	/**
+	 * Mark the download as failed, after which readers see the failure.
+	 */
+	void fail(Throwable failure) {
+		synchronized (this.monitor) {
+			this.failure = failure;
+			this.monitor.notifyAll();
+		}
+	}
+
+	/**
+	 * Delete the download file once no stream reads it anymore. Deleting a file that is still open
+	 * fails on some platforms, so it is deferred until the last stream is closed.
+	 */
+	void discard() {
+		synchronized (this.monitor) {
+			this.discarded = true;
+			if (this.openStreams == 0) {
+				this.file.delete();
+			}
+		}
+	}
+
+	/**
+	 * Wait until the first bytes are about to arrive or the download has finished.
+	 * @return {@code true} if the transfer has started, {@code false} if it failed before
+	 */
+	boolean awaitStarted() throws InterruptedIOException {
+		synchronized (this.monitor) {
+			while (!this.started && !this.completed && this.failure == null) {
+				waitForProgress();
+			}
+			return this.started;
+		}
+	}
+
+	InputStream newInputStream() throws IOException {
+		synchronized (this.monitor) {
+			DownloadInputStream stream = new DownloadInputStream(new RandomAccessFile(this.file, "r"));
+			this.openStreams++;
+			return stream;
+		}
+	}
+
+	private void waitForProgress() throws InterruptedIOException {
+		try {
+			// bounded, as progress may be reported before the data reaches the file
+			this.monitor.wait(POLL_INTERVAL);
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for artifact download");
+		}
+	}
+
+	private class DownloadInputStream extends InputStream {
+
+		private final RandomAccessFile input;
+
+		private boolean closed;
+
+		DownloadInputStream(RandomAccessFile input) {
+			this.input = input;
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] b = new byte[1];
+			int read = read(b, 0, 1);
+			return read == -1 ? -1 : b[0] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			while (true) {
+				long seen;
+				synchronized (monitor) {
+					seen = progress;
+				}
+				int read = this.input.read(b, off, len);
+				if (read > 0) {
+					return read;
+				}
+				synchronized (monitor) {
+					if (failure != null) {
+						throw new IOException("Download of " + file.getName() + " failed", failure);
+					}
+					if (completed) {
+						// everything has been written once the download is complete
+						return this.input.read(b, off, len);
+					}
+					if (progress == seen) {
+						waitForProgress();
+					}
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.input.close();
+			synchronized (monitor) {
+				if (this.closed) {
+					return;
+				}
+				this.closed = true;
+				if (--openStreams == 0 && discarded) {
+					file.delete();
+				}
+			}
+		}
+	}
+
+}
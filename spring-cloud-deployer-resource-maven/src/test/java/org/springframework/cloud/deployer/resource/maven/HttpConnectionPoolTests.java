@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.io.Closeable;
+
+import org.eclipse.aether.DefaultRepositorySystemSession;
+import org.eclipse.aether.RepositoryCache;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link HttpConnectionPool}.
+ */
+public class HttpConnectionPoolTests {
+
+	private final DefaultRepositorySystemSession session = new DefaultRepositorySystemSession();
+
+	@Test
+	public void transportStateIsSharedAcrossSessions() {
+		HttpConnectionPool pool = new HttpConnectionPool(0, 30000);
+		RepositoryCache first = pool.newSessionCache();
+		RepositoryCache second = pool.newSessionCache();
+		TransportState state = new TransportState();
+		first.put(this.session, HttpConnectionPool.TRANSPORT_STATE_KEY, state);
+		assertSame(state, second.get(this.session, HttpConnectionPool.TRANSPORT_STATE_KEY));
+		assertFalse(state.closed);
+	}
+
+	@Test
+	public void concurrentlyCreatedTransportStateIsClosed() {
+		HttpConnectionPool pool = new HttpConnectionPool(0, 30000);
+		RepositoryCache first = pool.newSessionCache();
+		RepositoryCache second = pool.newSessionCache();
+		TransportState winner = new TransportState();
+		TransportState loser = new TransportState();
+		first.put(this.session, HttpConnectionPool.TRANSPORT_STATE_KEY, winner);
+		second.put(this.session, HttpConnectionPool.TRANSPORT_STATE_KEY, loser);
+		assertSame(winner, pool.newSessionCache().get(this.session, HttpConnectionPool.TRANSPORT_STATE_KEY));
+		assertFalse(winner.closed);
+		assertTrue(loser.closed);
+	}
+
+	@Test
+	public void otherEntriesArePrivateToTheSession() {
+		HttpConnectionPool pool = new HttpConnectionPool(0, 30000);
+		RepositoryCache first = pool.newSessionCache();
+		first.put(this.session, "key", "value");
+		assertEquals("value", first.get(this.session, "key"));
+		assertNull(pool.newSessionCache().get(this.session, "key"));
+	}
+
+	private static class TransportState implements Closeable {
+
+		private boolean closed;
+
+		@Override
+		public void close() {
+			this.closed = true;
+		}
+
+	}
+
+}
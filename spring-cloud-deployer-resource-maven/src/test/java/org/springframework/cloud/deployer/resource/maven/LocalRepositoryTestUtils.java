@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Helpers for tests working against a local Maven repository in a temporary directory.
+ */
+final class LocalRepositoryTestUtils {
+
+	private LocalRepositoryTestUtils() {
+	}
+
+	/**
+	 * Write an artifact into the layout of a local repository, with its file name as content.
+	 *
+	 * @param localRepository the root of the local repository
+	 * @param resource the artifact
+	 * @return the artifact file
+	 */
+	static File install(File localRepository, MavenResource resource) throws IOException {
+		File directory = new File(localRepository, resource.getGroupId().replace('.', File.separatorChar)
+				+ File.separator + resource.getArtifactId() + File.separator + resource.getVersion());
+		directory.mkdirs();
+		File file = new File(directory, resource.getFilename());
+		Files.write(file.toPath(), resource.getFilename().getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+}
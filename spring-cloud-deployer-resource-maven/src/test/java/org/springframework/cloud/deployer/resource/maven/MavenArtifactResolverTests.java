@@ -0,0 +1,403 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StreamUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link MavenArtifactResolver} against a temporary local repository.
+ */
+public class MavenArtifactResolverTests {
+
+	private static final String FOO_SHA1 = "0beec7b5ea3f0fdbc95d0dd47f3c5bc275da8a33";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private MavenProperties properties;
+
+	@Before
+	public void setup() {
+		this.properties = new MavenProperties();
+		this.properties.setLocalRepository(this.folder.getRoot().getAbsolutePath());
+		this.properties.setOffline(true);
+		this.properties.getResolution().setParallelism(1);
+	}
+
+	@Test
+	public void concurrentResolutionsAreCoalesced() throws Exception {
+		MavenArtifactResolver resolver = new MavenArtifactResolver(this.properties);
+		MavenResource resource = MavenResource.parse("foo:bar:1.0.0", resolver);
+		File file = LocalRepositoryTestUtils.install(this.folder.getRoot(), resource);
+		CountDownLatch latch = blockExecutor(resolver);
+		CompletableFuture<File> first = resolver.resolveAsync(resource);
+		CompletableFuture<File> second = resolver.resolveAsync(MavenResource.parse("foo:bar:jar:1.0.0", resolver));
+		CompletableFuture<MavenResolutionResult> batch = CompletableFuture.supplyAsync(
+				() -> resolver.resolveAll(Collections.singletonList(resource)));
+		latch.countDown();
+		assertEquals(file.getCanonicalFile(), first.get(10, TimeUnit.SECONDS).getCanonicalFile());
+		assertEquals(first.get(), second.get());
+		assertEquals(first.get(), batch.get(10, TimeUnit.SECONDS).getResolved().get(resource));
+		// the blocking task and a single resolution
+		assertEquals(2, resolver.getMetrics().getCompletedResolutions());
+	}
+
+	@Test
+	public void concurrentResolutionsShareFailure() throws Exception {
+		MavenArtifactResolver resolver = new MavenArtifactResolver(this.properties);
+		MavenResource resource = MavenResource.parse("foo:missing:1.0.0", resolver);
+		CountDownLatch latch = blockExecutor(resolver);
+		CompletableFuture<File> first = resolver.resolveAsync(resource);
+		CompletableFuture<File> second = resolver.resolveAsync(resource);
+		latch.countDown();
+		try {
+			first.get(10, TimeUnit.SECONDS);
+			fail("Expected resolution failure");
+		}
+		catch (ExecutionException e) {
+			assertEquals(IllegalStateException.class, e.getCause().getClass());
+		}
+		try {
+			second.get(10, TimeUnit.SECONDS);
+			fail("Expected resolution failure");
+		}
+		catch (ExecutionException e) {
+			assertEquals(IllegalStateException.class, e.getCause().getClass());
+		}
+		assertEquals(1, resolver.getMetrics().getFailedResolutions());
+		// a new request after the failure starts a new resolution
+		resolver.resolveAsync(resource).handle((file, e) -> null).get(10, TimeUnit.SECONDS);
+		assertEquals(2, resolver.getMetrics().getFailedResolutions());
+	}
+
+	@Test
+	public void callersOfCoalescedResolutionsDoNotAffectEachOther() throws Exception {
+		MavenArtifactResolver resolver = new MavenArtifactResolver(this.properties);
+		MavenResource resource = MavenResource.parse("foo:bar:1.0.0", resolver);
+		File file = LocalRepositoryTestUtils.install(this.folder.getRoot(), resource);
+		CountDownLatch latch = blockExecutor(resolver);
+		CompletableFuture<File> first = resolver.resolveAsync(resource);
+		CompletableFuture<File> second = resolver.resolveAsync(resource);
+		first.cancel(true);
+		second.obtrudeValue(new File("other"));
+		CompletableFuture<File> third = resolver.resolveAsync(resource);
+		latch.countDown();
+		assertEquals(file.getCanonicalFile(), third.get(10, TimeUnit.SECONDS).getCanonicalFile());
+		assertEquals(2, resolver.getMetrics().getCompletedResolutions());
+	}
+
+	@Test
+	public void localFirstUsesVerifiedLocalRelease() throws Exception {
+		MavenResource resource = installTrackedFromOtherRepository("foo:bar:1.0.0", "0beec7b5ea3f0fdbc95d0dd47f3c5bc275da8a33");
+		MavenArtifactResolver resolver = new MavenArtifactResolver(localFirstProperties());
+		assertEquals(new File(this.folder.getRoot(), "foo/bar/1.0.0/bar-1.0.0.jar").getCanonicalFile(),
+				resolver.resolve(MavenResource.parse(resource.toString(), resolver)).getFile().getCanonicalFile());
+	}
+
+	@Test
+	public void listenersAreNotifiedOfEveryResolution() throws Exception {
+		MavenResource resource = installTrackedFromOtherRepository("foo:bar:1.0.0", FOO_SHA1);
+		MavenArtifactResolver resolver = new MavenArtifactResolver(localFirstProperties());
+		List<File> resolved = new CopyOnWriteArrayList<>();
+		resolver.addArtifactListener((r, file) -> resolved.add(file));
+		MavenResource local = MavenResource.parse(resource.toString(), resolver);
+		File file = resolver.resolve(local).getFile();
+		// the second resolution is served from the resolved artifact cache
+		resolver.resolve(local);
+		assertEquals(Arrays.asList(file, file), resolved);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void localFirstFallsBackOnChecksumMismatch() throws Exception {
+		MavenResource resource = installTrackedFromOtherRepository("foo:bar:1.0.0", "0000000000000000000000000000000000000000");
+		MavenArtifactResolver resolver = new MavenArtifactResolver(localFirstProperties());
+		// falls back to Aether, which can not reach the remote repository
+		resolver.resolve(MavenResource.parse(resource.toString(), resolver));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void localFirstDoesNotApplyToSnapshots() throws Exception {
+		MavenResource resource = installTrackedFromOtherRepository("foo:bar:1.0.0-SNAPSHOT", null);
+		MavenArtifactResolver resolver = new MavenArtifactResolver(localFirstProperties());
+		resolver.resolve(MavenResource.parse(resource.toString(), resolver));
+	}
+
+	@Test
+	public void httpConnectionsAreReusedAcrossResolutions() throws Exception {
+		assertEquals(1, countConnections(true));
+	}
+
+	@Test
+	public void httpConnectionsAreNotReusedWhenPoolingDisabled() throws Exception {
+		assertEquals(2, countConnections(false));
+	}
+
+	@Test
+	public void streamingInstallsVerifiedArtifact() throws Exception {
+		HttpServer server = startRepository(FOO_SHA1, ConcurrentHashMap.newKeySet());
+		try {
+			MavenProperties properties = remoteProperties(server);
+			properties.getResolution().setStreaming(true);
+			MavenArtifactResolver resolver = new MavenArtifactResolver(properties);
+			MavenResource resource = MavenResource.parse("foo:bar:1.0.0", resolver);
+			try (InputStream is = resource.getInputStream()) {
+				assertEquals("foo", StreamUtils.copyToString(is, StandardCharsets.UTF_8));
+			}
+			File installed = new File(this.folder.getRoot(), "foo/bar/1.0.0/bar-1.0.0.jar");
+			assertEquals(installed.getCanonicalFile(), resource.getFile().getCanonicalFile());
+			assertTrue(new String(Files.readAllBytes(new File(installed.getParentFile(), "_remote.repositories")
+					.toPath()), StandardCharsets.UTF_8).contains("bar-1.0.0.jar>local="));
+			assertEquals(0, installed.getParentFile().list((dir, name) -> name.endsWith(".part")).length);
+		}
+		finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	public void streamingFailsOnChecksumMismatch() throws Exception {
+		HttpServer server = startRepository("0000000000000000000000000000000000000000", ConcurrentHashMap.newKeySet());
+		try {
+			MavenProperties properties = remoteProperties(server);
+			properties.getResolution().setStreaming(true);
+			properties.setChecksumPolicy("fail");
+			MavenArtifactResolver resolver = new MavenArtifactResolver(properties);
+			try (InputStream is = MavenResource.parse("foo:bar:1.0.0", resolver).getInputStream()) {
+				StreamUtils.copyToString(is, StandardCharsets.UTF_8);
+				fail("Expected checksum failure");
+			}
+			catch (IOException e) {
+				assertTrue(e.getCause().getMessage().contains("Checksum validation failed"));
+			}
+			assertFalse(new File(this.folder.getRoot(), "foo/bar/1.0.0/bar-1.0.0.jar").exists());
+		}
+		finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	public void streamingFailsWithoutChecksumUnderFailPolicy() throws Exception {
+		HttpServer server = startRepository(null, ConcurrentHashMap.newKeySet());
+		try {
+			MavenProperties properties = remoteProperties(server);
+			properties.getResolution().setStreaming(true);
+			properties.setChecksumPolicy("fail");
+			MavenArtifactResolver resolver = new MavenArtifactResolver(properties);
+			try (InputStream is = MavenResource.parse("foo:bar:1.0.0", resolver).getInputStream()) {
+				StreamUtils.copyToString(is, StandardCharsets.UTF_8);
+				fail("Expected checksum failure");
+			}
+			catch (IOException e) {
+				assertTrue(e.getCause().getMessage().contains("No SHA-1 checksum published"));
+			}
+			assertFalse(new File(this.folder.getRoot(), "foo/bar/1.0.0/bar-1.0.0.jar").exists());
+		}
+		finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	public void streamingInstallsMismatchingArtifactUnderWarnPolicy() throws Exception {
+		HttpServer server = startRepository("0000000000000000000000000000000000000000", ConcurrentHashMap.newKeySet());
+		try {
+			MavenProperties properties = remoteProperties(server);
+			properties.getResolution().setStreaming(true);
+			properties.setChecksumPolicy("warn");
+			MavenArtifactResolver resolver = new MavenArtifactResolver(properties);
+			try (InputStream is = MavenResource.parse("foo:bar:1.0.0", resolver).getInputStream()) {
+				assertEquals("foo", StreamUtils.copyToString(is, StandardCharsets.UTF_8));
+			}
+			assertTrue(new File(this.folder.getRoot(), "foo/bar/1.0.0/bar-1.0.0.jar").exists());
+		}
+		finally {
+			server.stop(0);
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void streamingReportsMissingArtifactLikeResolution() throws Exception {
+		HttpServer server = startRepository(FOO_SHA1, ConcurrentHashMap.newKeySet());
+		try {
+			MavenProperties properties = remoteProperties(server);
+			properties.getResolution().setStreaming(true);
+			MavenArtifactResolver resolver = new MavenArtifactResolver(properties);
+			MavenResource.parse("foo:missing:1.0.0", resolver).getInputStream();
+		}
+		finally {
+			server.stop(0);
+		}
+	}
+
+	@Test
+	public void streamingSetupFailureDoesNotBlockLaterResolutions() throws Exception {
+		HttpServer server = startRepository(FOO_SHA1, ConcurrentHashMap.newKeySet());
+		try {
+			MavenProperties properties = remoteProperties(server);
+			properties.getResolution().setStreaming(true);
+			MavenArtifactResolver resolver = new MavenArtifactResolver(properties);
+			MavenResource resource = MavenResource.parse("foo:bar:1.0.0", resolver);
+			// a file where the artifact directory belongs, so the download can not be created
+			File directory = new File(this.folder.getRoot(), "foo/bar/1.0.0");
+			directory.getParentFile().mkdirs();
+			Files.write(directory.toPath(), new byte[0]);
+			try {
+				resource.getInputStream();
+				fail("Expected IOException");
+			}
+			catch (IOException e) {
+				// expected
+			}
+			try {
+				resolver.resolveAsync(resource).get(10, TimeUnit.SECONDS);
+				fail("Expected resolution failure");
+			}
+			catch (ExecutionException e) {
+				// failed rather than waiting for the abandoned streaming resolution
+			}
+		}
+		finally {
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Resolve two artifacts one after the other from a local HTTP repository and return the number
+	 * of connections used.
+	 */
+	private int countConnections(boolean pooled) throws Exception {
+		Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+		HttpServer server = startRepository(FOO_SHA1, clientPorts);
+		try {
+			MavenProperties properties = remoteProperties(server);
+			properties.getConnectionPool().setEnabled(pooled);
+			MavenArtifactResolver resolver = new MavenArtifactResolver(properties);
+			resolver.resolve(MavenResource.parse("foo:bar:1.0.0", resolver));
+			resolver.resolve(MavenResource.parse("foo:baz:1.0.0", resolver));
+			return clientPorts.size();
+		}
+		finally {
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Start a remote repository serving every jar, except those of artifact "missing", with content
+	 * "foo" and the given SHA-1 checksum, if any, recording the client ports of the requests.
+	 */
+	private HttpServer startRepository(String sha1, Set<Integer> clientPorts) throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/repo", exchange -> {
+			clientPorts.add(exchange.getRemoteAddress().getPort());
+			String path = exchange.getRequestURI().getPath();
+			byte[] body = path.contains("/missing/") ? null
+					: path.endsWith(".jar") ? "foo".getBytes("UTF-8")
+					: path.endsWith(".jar.sha1") && sha1 != null ? sha1.getBytes("UTF-8")
+					: null;
+			exchange.sendResponseHeaders(body != null ? 200 : 404, body != null ? body.length : -1);
+			if (body != null) {
+				try (OutputStream os = exchange.getResponseBody()) {
+					os.write(body);
+				}
+			}
+			exchange.close();
+		});
+		server.start();
+		return server;
+	}
+
+	private MavenProperties remoteProperties(HttpServer server) {
+		MavenProperties properties = new MavenProperties();
+		properties.setLocalRepository(this.folder.getRoot().getAbsolutePath());
+		properties.setRemoteRepositories(Collections.singletonMap("local", new MavenProperties.RemoteRepository(
+				"http://localhost:" + server.getAddress().getPort() + "/repo")));
+		return properties;
+	}
+
+	private MavenProperties localFirstProperties() {
+		MavenProperties properties = new MavenProperties();
+		properties.setLocalRepository(this.folder.getRoot().getAbsolutePath());
+		properties.setRemoteRepositories(Collections.singletonMap("unreachable",
+				new MavenProperties.RemoteRepository("http://localhost:1/repo")));
+		properties.getResolution().setLocalFirst(true);
+		return properties;
+	}
+
+	/**
+	 * Install an artifact with content "foo", recorded as downloaded from a repository that is
+	 * not configured, so that Aether does not consider it available locally.
+	 */
+	private MavenResource installTrackedFromOtherRepository(String coordinates, String sha1) throws IOException {
+		MavenResource resource = MavenResource.parse(coordinates, new MavenArtifactResolver(this.properties));
+		File file = LocalRepositoryTestUtils.install(this.folder.getRoot(), resource);
+		Files.write(file.toPath(), "foo".getBytes("UTF-8"));
+		Files.write(new File(file.getParentFile(), "_remote.repositories").toPath(),
+				(file.getName() + ">central=\n").getBytes("UTF-8"));
+		if (sha1 != null) {
+			Files.write(new File(file.getPath() + ".sha1").toPath(), (sha1 + "  " + file.getName()).getBytes("UTF-8"));
+		}
+		return resource;
+	}
+
+	private CountDownLatch blockExecutor(MavenArtifactResolver resolver) throws InterruptedException {
+		Field field = ReflectionUtils.findField(MavenArtifactResolver.class, "executor");
+		ReflectionUtils.makeAccessible(field);
+		ResolutionExecutor executor = (ResolutionExecutor) ReflectionUtils.getField(field, resolver);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch latch = new CountDownLatch(1);
+		executor.submit(() -> {
+			started.countDown();
+			return latch.await(10, TimeUnit.SECONDS);
+		});
+		started.await(10, TimeUnit.SECONDS);
+		return latch;
+	}
+
+}
@@ -17,10 +17,19 @@
 package org.springframework.cloud.deployer.resource.maven;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import org.springframework.core.io.Resource;
+import org.springframework.util.ReflectionUtils;
 
 /**
  * Tests for the {@link MavenResourceLoader}.
@@ -29,6 +38,9 @@ import org.springframework.core.io.Resource;
  */
 public class MavenResourceLoaderTests {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void verifyCoordinates() {
 		String location = "maven://foo:bar:1.0.1";
@@ -41,6 +53,50 @@ public class MavenResourceLoaderTests {
 		assertEquals("1.0.1", mavenResource.getVersion());
 	}
 
+	@Test
+	public void resourcesShareResolver() {
+		MavenProperties properties = new MavenProperties();
+		MavenResourceLoader loader = new MavenResourceLoader(properties);
+		Resource resource1 = loader.getResource("maven://foo:bar:1.0.1");
+		Resource resource2 = loader.getResource("maven://foo:baz:1.0.1");
+		Resource resource3 = MavenResource.parse("foo:qux:1.0.1", properties);
+		Field resolver = ReflectionUtils.findField(MavenResource.class, "resolver");
+		ReflectionUtils.makeAccessible(resolver);
+		assertSame(ReflectionUtils.getField(resolver, resource1), ReflectionUtils.getField(resolver, resource2));
+		assertSame(ReflectionUtils.getField(resolver, resource1), ReflectionUtils.getField(resolver, resource3));
+		assertSame(loader.getResolver(), ReflectionUtils.getField(resolver, resource1));
+	}
+
+	@Test
+	public void resourcesAreCanonicalized() {
+		MavenResourceLoader loader = new MavenResourceLoader(new MavenProperties());
+		Resource resource = loader.getResource("maven://foo:bar:1.0.1");
+		assertSame(resource, loader.getResource("maven://foo:bar:1.0.1"));
+		assertSame(resource, loader.getResource("maven:foo:bar:1.0.1"));
+		assertSame(resource, loader.getResource("foo:bar:1.0.1"));
+		assertEquals(resource, loader.getResource("foo:bar:jar:1.0.1"));
+	}
+
+	@Test
+	public void resolveAll() throws Exception {
+		MavenProperties properties = new MavenProperties();
+		properties.setLocalRepository(this.folder.getRoot().getAbsolutePath());
+		properties.setOffline(true);
+		MavenResourceLoader loader = new MavenResourceLoader(properties);
+		MavenResource one = (MavenResource) loader.getResource("maven://foo:one:1.0.0");
+		MavenResource two = (MavenResource) loader.getResource("maven://foo:two:jar:exec:1.0.0");
+		MavenResource missing = (MavenResource) loader.getResource("maven://foo:missing:1.0.0");
+		File file1 = LocalRepositoryTestUtils.install(this.folder.getRoot(), one);
+		File file2 = LocalRepositoryTestUtils.install(this.folder.getRoot(), two);
+		MavenResolutionResult result = loader.resolveAll(Arrays.asList(one, two, missing));
+		assertEquals(2, result.getResolved().size());
+		assertEquals(file1.getCanonicalFile(), result.getResolved().get(one).getCanonicalFile());
+		assertEquals(file2.getCanonicalFile(), result.getResolved().get(two).getCanonicalFile());
+		assertTrue(result.hasFailures());
+		assertEquals(1, result.getFailures().size());
+		assertEquals(IllegalStateException.class, result.getFailures().get(missing).getClass());
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void invalidPrefix() {
 		MavenResourceLoader loader = new MavenResourceLoader(new MavenProperties());
@@ -34,6 +34,8 @@ import org.springframework.util.ReflectionUtils;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Tests for {@link MavenResource}
@@ -95,6 +97,32 @@ public class MavenResourceTests {
 				"timestamp-task-1.0.0.BUILD-SNAPSHOT.jar", resource.getFilename());
 	}
 
+	@Test
+	public void coordinatesWithEmptyExtensionParsed() {
+		MavenResource resource = MavenResource.parse("foo:bar::1.0.0");
+		assertEquals("jar", resource.getExtension());
+		assertEquals("", resource.getClassifier());
+		assertEquals("foo:bar:jar:1.0.0", resource.toString());
+		resource = MavenResource.parse("foo:bar::exec:1.0.0");
+		assertEquals("jar", resource.getExtension());
+		assertEquals("exec", resource.getClassifier());
+		assertEquals("foo:bar:jar:exec:1.0.0", resource.toString());
+	}
+
+	@Test
+	public void malformedCoordinatesRejected() {
+		for (String coordinates : new String[] { "foo:1.0.0", "foo::1.0.0", ":bar:1.0.0", "foo:bar:", "foo:bar:jar::1.0.0",
+				"foo:bar:jar:exec:1.0.0:x", "foo:bar baz:1.0.0" }) {
+			try {
+				MavenResource.parse(coordinates);
+				fail("Expected " + coordinates + " to be rejected");
+			}
+			catch (IllegalArgumentException e) {
+				assertTrue(e.getMessage().startsWith("Bad artifact coordinates " + coordinates));
+			}
+		}
+	}
+
 	@Test
 	public void mavenResourceRetrievedFromNonDefaultRemoteRepository() throws Exception {
 		String coordinates = "org.springframework.cloud.task.app:timestamp-task:jar:1.0.0.BUILD-SNAPSHOT";
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link ResolutionExecutor}.
+ */
+public class ResolutionExecutorTests {
+
+	@Test
+	public void concurrencyIsCapped() throws Exception {
+		verifyConcurrencyIsCapped(new ResolutionExecutor(2, false));
+	}
+
+	@Test
+	public void concurrencyIsCappedWithVirtualThreads() throws Exception {
+		// falls back to platform threads before JDK 21
+		verifyConcurrencyIsCapped(new ResolutionExecutor(2, true));
+	}
+
+	@Test
+	public void failuresAreReported() throws Exception {
+		ResolutionExecutor executor = new ResolutionExecutor(1, false);
+		CompletableFuture<Object> future = executor.submit(() -> {
+			throw new IllegalStateException("expected");
+		});
+		try {
+			future.get(10, TimeUnit.SECONDS);
+			fail("Expected failure");
+		}
+		catch (ExecutionException e) {
+			assertEquals(IllegalStateException.class, e.getCause().getClass());
+		}
+		assertEquals(1, executor.getMetrics().getFailedResolutions());
+		assertEquals(0, executor.getMetrics().getCompletedResolutions());
+	}
+
+	private void verifyConcurrencyIsCapped(ResolutionExecutor executor) throws Exception {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		List<CompletableFuture<Integer>> futures = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			futures.add(executor.submit(() -> {
+				int current = running.incrementAndGet();
+				maxRunning.accumulateAndGet(current, Math::max);
+				Thread.sleep(50);
+				running.decrementAndGet();
+				return current;
+			}));
+		}
+		for (CompletableFuture<Integer> future : futures) {
+			future.get(10, TimeUnit.SECONDS);
+		}
+		assertTrue("Expected at most 2 concurrent resolutions but was " + maxRunning.get(), maxRunning.get() <= 2);
+		MavenResolutionMetrics metrics = executor.getMetrics();
+		assertEquals(6, metrics.getCompletedResolutions());
+		assertEquals(0, metrics.getActiveResolutions());
+		assertEquals(0, metrics.getQueuedResolutions());
+		assertTrue(metrics.getMaxQueueWaitTime().toMillis() >= 50);
+		assertTrue(metrics.getTotalResolutionTime().toMillis() >= 6 * 50);
+	}
+
+}
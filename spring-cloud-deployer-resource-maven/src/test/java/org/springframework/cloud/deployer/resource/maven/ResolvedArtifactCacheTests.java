@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.maven;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link ResolvedArtifactCache}.
+ */
+public class ResolvedArtifactCacheTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void releasesAreCached() throws Exception {
+		ResolvedArtifactCache cache = new ResolvedArtifactCache(10, 0);
+		MavenResource resource = MavenResource.parse("foo:bar:1.0.0");
+		File file = this.folder.newFile();
+		cache.put(resource, file);
+		assertEquals(file, cache.get(resource));
+		assertEquals(file, cache.get(MavenResource.parse("foo:bar:jar:1.0.0")));
+	}
+
+	@Test
+	public void snapshotsExpire() throws Exception {
+		MavenResource resource = MavenResource.parse("foo:bar:1.0.0.BUILD-SNAPSHOT");
+		File file = this.folder.newFile();
+		ResolvedArtifactCache noSnapshots = new ResolvedArtifactCache(10, 0);
+		noSnapshots.put(resource, file);
+		assertNull(noSnapshots.get(resource));
+		ResolvedArtifactCache cache = new ResolvedArtifactCache(10, 50);
+		cache.put(resource, file);
+		assertEquals(file, cache.get(resource));
+		Thread.sleep(100);
+		assertNull(cache.get(resource));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void leastRecentlyUsedEntriesAreEvicted() throws Exception {
+		ResolvedArtifactCache cache = new ResolvedArtifactCache(2, 0);
+		MavenResource one = MavenResource.parse("foo:one:1.0.0");
+		MavenResource two = MavenResource.parse("foo:two:1.0.0");
+		MavenResource three = MavenResource.parse("foo:three:1.0.0");
+		cache.put(one, this.folder.newFile());
+		cache.put(two, this.folder.newFile());
+		cache.get(one);
+		cache.put(three, this.folder.newFile());
+		assertEquals(2, cache.size());
+		assertNull(cache.get(two));
+	}
+
+	@Test
+	public void deletedFilesAreMisses() throws Exception {
+		ResolvedArtifactCache cache = new ResolvedArtifactCache(10, 0);
+		MavenResource resource = MavenResource.parse("foo:bar:1.0.0");
+		File file = this.folder.newFile();
+		cache.put(resource, file);
+		file.delete();
+		assertNull(cache.get(resource));
+	}
+
+	@Test
+	public void disabledCache() throws Exception {
+		ResolvedArtifactCache cache = new ResolvedArtifactCache(0, 1000);
+		MavenResource resource = MavenResource.parse("foo:bar:1.0.0");
+		cache.put(resource, this.folder.newFile());
+		assertNull(cache.get(resource));
+	}
+
+}
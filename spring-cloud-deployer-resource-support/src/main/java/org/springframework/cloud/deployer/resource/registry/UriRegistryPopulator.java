@@ -20,16 +20,31 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.cloud.deployer.resource.support.AsyncResourceResolver;
 import org.springframework.context.ResourceLoaderAware;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -38,7 +53,12 @@ import org.springframework.util.StringUtils;
  * {@link Properties} file. One or more URI strings indicating the
  * location of property files is supplied via the constructor,
  * and the files themselves are loaded via the {@link Resource}
- * provided by {@link #resourceLoader}.
+ * provided by {@link #resourceLoader}. Several files are loaded
+ * concurrently, but registered in the order they are supplied.
+ * <p>
+ * Optionally, the artifacts registered are {@link #setPrefetch(boolean) prefetched} in the
+ * background once the registry has been populated, so that the first deployment of an
+ * application does not have to wait for its download.
  *
  * @author Patrick Peralta
  * @author Ilayaperumal Gopinathan
@@ -47,14 +67,65 @@ public class UriRegistryPopulator implements ResourceLoaderAware {
 
 	private static final Logger logger = LoggerFactory.getLogger(UriRegistryPopulator.class);
 
+	private static final int MAX_CONCURRENT_LOADS = 16;
+
 	private volatile ResourceLoader resourceLoader;
 
+	private volatile boolean prefetch;
+
+	private volatile Predicate<URI> prefetchFilter = uri -> "maven".equalsIgnoreCase(uri.getScheme())
+			|| "http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme());
+
+	private volatile int prefetchParallelism = AsyncResourceResolver.DEFAULT_PARALLELISM;
+
+	private volatile PrefetchListener prefetchListener;
 
 	@Override
 	public void setResourceLoader(ResourceLoader resourceLoader) {
 		this.resourceLoader = resourceLoader;
 	}
 
+	/**
+	 * Set whether the URIs registered by {@link #populateRegistry(boolean, UriRegistry, String...)}
+	 * are {@link #prefetch(Collection) prefetched} in the background. Off by default.
+	 *
+	 * @param prefetch whether to prefetch registered URIs
+	 */
+	public void setPrefetch(boolean prefetch) {
+		this.prefetch = prefetch;
+	}
+
+	/**
+	 * Set the URIs to prefetch, by default those with a {@code maven}, {@code http} or
+	 * {@code https} scheme.
+	 *
+	 * @param prefetchFilter the filter of URIs to prefetch
+	 */
+	public void setPrefetchFilter(Predicate<URI> prefetchFilter) {
+		Assert.notNull(prefetchFilter, "prefetchFilter must not be null");
+		this.prefetchFilter = prefetchFilter;
+	}
+
+	/**
+	 * Set the number of URIs prefetched at once, {@link AsyncResourceResolver#DEFAULT_PARALLELISM}
+	 * by default.
+	 *
+	 * @param prefetchParallelism the number of URIs prefetched at once
+	 */
+	public void setPrefetchParallelism(int prefetchParallelism) {
+		Assert.isTrue(prefetchParallelism > 0, "prefetchParallelism must be greater than 0");
+		this.prefetchParallelism = prefetchParallelism;
+	}
+
+	/**
+	 * Set a listener notified as each URI has been prefetched.
+	 *
+	 * @param prefetchListener the listener, or {@code null} for none
+	 */
+	public void setPrefetchListener(PrefetchListener prefetchListener) {
+		this.prefetchListener = prefetchListener;
+	}
+
 	/**
 	 * Populate the provided registry with the contents of
 	 * the property files indicated by {@code resourceUris}.
@@ -63,58 +134,204 @@ public class UriRegistryPopulator implements ResourceLoaderAware {
 	 * @param registry     the registry to populate
 	 * @param resourceUris string(s) indicating the URIs to load properties from
 	 * @return the registered URI values in the map with the keys being the property names
+	 * @see #setPrefetch(boolean)
 	 */
 	public Map<String, URI> populateRegistry(boolean overwrite, UriRegistry registry, String... resourceUris) {
 		Assert.notEmpty(resourceUris);
 		Map<String, URI> registered = new HashMap<>();
-		for (String resourceUri : resourceUris) {
-			Resource resource = this.resourceLoader.getResource(resourceUri);
-			Properties properties = new Properties();
-			try (InputStream is = resource.getInputStream()) {
-				properties.load(is);
-				for (String key : properties.stringPropertyNames()) {
-					try {
-						URI uri = new URI(properties.getProperty(key));
-						boolean validUri = true;
-						if (uri == null || StringUtils.isEmpty(uri)) {
-							logger.warn(String.format("Error when registering '%s': URI is required", key));
-							validUri = false;
-						}
-						if (validUri && !StringUtils.hasText(uri.getScheme())) {
-							logger.warn(String.format("Error when registering '%s' with URI %s: URI scheme must be specified", key, uri));
-							validUri = false;
-						}
-						if (validUri && !StringUtils.hasText(uri.getSchemeSpecificPart())) {
-							logger.warn(String.format("Error when registering '%s' with URI %s: URI scheme-specific part must be specified", key, uri));
-							validUri = false;
-						}
-						if (!overwrite) {
-							try {
-								if (registry.find(key) != null) {
-									// already exists; move on
-									continue;
-								}
-							}
-							catch (IllegalArgumentException e) {
-								// this key does not exist; will add
+		List<Future<Properties>> loads = loadProperties(resourceUris);
+		for (Future<Properties> load : loads) {
+			Properties properties = await(load, loads);
+			for (String key : properties.stringPropertyNames()) {
+				try {
+					URI uri = new URI(properties.getProperty(key));
+					boolean validUri = true;
+					if (uri == null || StringUtils.isEmpty(uri)) {
+						logger.warn(String.format("Error when registering '%s': URI is required", key));
+						validUri = false;
+					}
+					if (validUri && !StringUtils.hasText(uri.getScheme())) {
+						logger.warn(String.format("Error when registering '%s' with URI %s: URI scheme must be specified", key, uri));
+						validUri = false;
+					}
+					if (validUri && !StringUtils.hasText(uri.getSchemeSpecificPart())) {
+						logger.warn(String.format("Error when registering '%s' with URI %s: URI scheme-specific part must be specified", key, uri));
+						validUri = false;
+					}
+					if (!overwrite) {
+						try {
+							if (registry.find(key) != null) {
+								// already exists; move on
+								continue;
 							}
 						}
-						if (validUri) {
-							registry.register(key, uri);
-							registered.put(key, uri);
+						catch (IllegalArgumentException e) {
+							// this key does not exist; will add
 						}
 					}
-					catch (URISyntaxException e) {
-						throw new IllegalArgumentException(String.format("'%s' for '%s' is not a properly formed URI",
-								properties.getProperty(key), key), e);
+					if (validUri) {
+						registry.register(key, uri);
+						registered.put(key, uri);
 					}
 				}
+				catch (URISyntaxException e) {
+					throw new IllegalArgumentException(String.format("'%s' for '%s' is not a properly formed URI",
+							properties.getProperty(key), key), e);
+				}
+			}
+		}
+		if (this.prefetch) {
+			prefetch(registered.values());
+		}
+		return registered;
+	}
+
+	/**
+	 * Start loading the property files, all at once if there are several so that the time taken
+	 * is that of the slowest file rather than the sum. The files are looked up on the calling
+	 * thread and the returned loads are in the order of the URIs, so that registering them in
+	 * that order preserves the precedence of later files over earlier ones.
+	 */
+	private List<Future<Properties>> loadProperties(String[] resourceUris) {
+		List<Resource> resources = new ArrayList<>(resourceUris.length);
+		for (String resourceUri : resourceUris) {
+			resources.add(this.resourceLoader.getResource(resourceUri));
+		}
+		if (resources.size() == 1) {
+			try {
+				return Collections.singletonList(CompletableFuture.completedFuture(loadProperties(resources.get(0))));
 			}
 			catch (IOException e) {
 				throw new RuntimeException(e);
 			}
 		}
-		return registered;
+		List<Future<Properties>> loads = new ArrayList<>(resources.size());
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(resources.size(), MAX_CONCURRENT_LOADS),
+				new CustomizableThreadFactory("uri-registry-loader-"));
+		try {
+			for (Resource resource : resources) {
+				loads.add(executor.submit(() -> loadProperties(resource)));
+			}
+		}
+		finally {
+			// lets the submitted loads complete, and their threads terminate
+			executor.shutdown();
+		}
+		return loads;
+	}
+
+	private static Properties loadProperties(Resource resource) throws IOException {
+		Properties properties = new Properties();
+		try (InputStream is = resource.getInputStream()) {
+			properties.load(is);
+		}
+		return properties;
+	}
+
+	/**
+	 * Wait for a load to complete, cancelling all loads if it fails or the wait is interrupted, as
+	 * no one waits for the remaining loads any more.
+	 */
+	private static Properties await(Future<Properties> load, List<Future<Properties>> loads) {
+		try {
+			return load.get();
+		}
+		catch (InterruptedException e) {
+			cancel(loads);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while loading registry properties", e);
+		}
+		catch (ExecutionException e) {
+			cancel(loads);
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	private static void cancel(List<Future<Properties>> loads) {
+		for (Future<Properties> load : loads) {
+			load.cancel(true);
+		}
+	}
+
+	/**
+	 * Resolve the given URIs that pass the {@link #setPrefetchFilter(Predicate) prefetch filter} in
+	 * the background, at most {@link #setPrefetchParallelism(int) a number} at a time, so that the
+	 * artifacts they refer to are downloaded into their cache. A URI that fails to resolve is
+	 * logged and reported to the {@link #setPrefetchListener(PrefetchListener) listener}, but does
+	 * not fail the prefetch.
+	 *
+	 * @param uris the URIs to prefetch
+	 * @return a future completed once all URIs have been prefetched
+	 */
+	public CompletableFuture<Void> prefetch(Collection<URI> uris) {
+		Set<URI> prefetched = new LinkedHashSet<>();
+		for (URI uri : uris) {
+			if (this.prefetchFilter.test(uri)) {
+				prefetched.add(uri);
+			}
+		}
+		if (prefetched.isEmpty()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		logger.info(String.format("Prefetching %d registered URIs", prefetched.size()));
+		// sized to queue every URI, the parallelism bounds the concurrent downloads
+		AsyncResourceResolver resolver = new AsyncResourceResolver(this.resourceLoader, this.prefetchParallelism,
+				prefetched.size());
+		PrefetchListener listener = this.prefetchListener;
+		AtomicInteger completed = new AtomicInteger();
+		AtomicInteger failed = new AtomicInteger();
+		CompletableFuture<?>[] resolutions = new CompletableFuture<?>[prefetched.size()];
+		int i = 0;
+		for (URI uri : prefetched) {
+			resolutions[i++] = resolver.resolve(uri.toString()).handle((file, e) -> {
+				int count = completed.incrementAndGet();
+				if (e != null) {
+					failed.incrementAndGet();
+					logger.warn(String.format("Error when prefetching %s", uri), e);
+				}
+				else if (logger.isDebugEnabled()) {
+					logger.debug(String.format("Prefetched %s (%d of %d)", uri, count, resolutions.length));
+				}
+				if (listener != null) {
+					try {
+						listener.prefetched(uri, e, count, resolutions.length);
+					}
+					catch (RuntimeException ex) {
+						// a faulty listener must not fail the prefetch of the other URIs
+						logger.warn(String.format("Prefetch listener failed for %s", uri), ex);
+					}
+				}
+				return null;
+			});
+		}
+		return CompletableFuture.allOf(resolutions).thenRun(() -> logger.info(String.format(
+				"Prefetched %d registered URIs, %d failed", resolutions.length, failed.get())));
+	}
+
+	/**
+	 * Callback notified of the progress of a {@link UriRegistryPopulator#prefetch(Collection)
+	 * prefetch}.
+	 */
+	@FunctionalInterface
+	public interface PrefetchListener {
+
+		/**
+		 * Called after a URI has been prefetched, or failed to.
+		 *
+		 * @param uri the URI
+		 * @param failure the failure, or {@code null} if the URI has been prefetched
+		 * @param completed the number of URIs done so far, including this one
+		 * @param total the number of URIs being prefetched
+		 */
+		void prefetched(URI uri, Throwable failure, int completed, int total);
+
 	}
 
 }
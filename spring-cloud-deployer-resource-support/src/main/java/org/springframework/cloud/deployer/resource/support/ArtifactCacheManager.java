@@ -0,0 +1,348 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.support;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+/**
+ * Keeps the artifacts downloaded to disk, such as the files of a {@link DownloadCache} or the
+ * Maven local repository, within a disk quota. The manager tracks the size, last access and
+ * number of accesses of every file it is told about, and whenever the total size exceeds the
+ * quota it deletes files in the order of its {@link EvictionPolicy}.
+ * <p>
+ * Files that are in use, typically by a running deployment, can be {@link #retain(File)
+ * retained} so that they are never evicted, until they are {@link #release(File) released} again.
+ * The manager can not tell by itself which files are in use, so a deployer launching an
+ * application from a resource obtains its file through {@link #retain(Resource)} rather than
+ * {@link Resource#getFile()}, and releases the file once the application has stopped. Files used
+ * by anyone else may be evicted while in use, so the manager should only be given directories
+ * that no one else relies on. A single manager can be shared by several caches to enforce one
+ * quota across all of them.
+ */
+public class ArtifactCacheManager {
+
+	private static final Logger logger = LoggerFactory.getLogger(ArtifactCacheManager.class);
+
+	private static final int MAX_RETAIN_ATTEMPTS = 3;
+
+	/**
+	 * The order in which files are evicted.
+	 */
+	public enum EvictionPolicy {
+
+		/**
+		 * Evict the files that have not been accessed for the longest time first.
+		 */
+		LEAST_RECENTLY_USED(Comparator.comparingLong((Entry entry) -> entry.lastAccess)),
+
+		/**
+		 * Evict the files that have been accessed the least first, and of those the least recently
+		 * used. Files found on disk count as accessed once.
+		 */
+		LEAST_FREQUENTLY_USED(Comparator.comparingLong((Entry entry) -> entry.accesses)
+				.thenComparingLong(entry -> entry.lastAccess));
+
+		private final Comparator<Entry> order;
+
+		EvictionPolicy(Comparator<Entry> order) {
+			this.order = order;
+		}
+
+	}
+
+	private final long quota;
+
+	private final EvictionPolicy policy;
+
+	private final Map<File, Entry> entries = new HashMap<>();
+
+	private final List<Consumer<File>> evictionListeners = new CopyOnWriteArrayList<>();
+
+	private long size;
+
+	private long evictions;
+
+	private long clock;
+
+	/**
+	 * Create a manager.
+	 *
+	 * @param quota the maximum total size in bytes of the tracked files
+	 * @param policy the order in which files are evicted
+	 */
+	public ArtifactCacheManager(long quota, EvictionPolicy policy) {
+		Assert.isTrue(quota > 0, "quota must be greater than 0");
+		Assert.notNull(policy, "policy must not be null");
+		this.quota = quota;
+		this.policy = policy;
+	}
+
+	public long getQuota() {
+		return this.quota;
+	}
+
+	public EvictionPolicy getPolicy() {
+		return this.policy;
+	}
+
+	/**
+	 * @return the total size in bytes of the tracked files
+	 */
+	public synchronized long getSize() {
+		return this.size;
+	}
+
+	/**
+	 * @return the number of files deleted to stay within the quota
+	 */
+	public synchronized long getEvictionCount() {
+		return this.evictions;
+	}
+
+	/**
+	 * Add a listener notified of every file after it has been evicted, for example to remove
+	 * files that belong with it.
+	 *
+	 * @param listener the listener
+	 */
+	public void addEvictionListener(Consumer<File> listener) {
+		Assert.notNull(listener, "listener must not be null");
+		this.evictionListeners.add(listener);
+	}
+
+	/**
+	 * Start tracking the files already in a directory and its subdirectories, taking their last
+	 * modified time as their last access, and evict files if they exceed the quota. This walks the
+	 * whole directory, so it may take a while for large directories.
+	 *
+	 * @param directory the directory
+	 * @param filter the files to track
+	 */
+	public void track(File directory, FileFilter filter) {
+		Map<File, Entry> found = new HashMap<>();
+		collect(directory, filter, found);
+		List<File> evicted;
+		synchronized (this) {
+			for (Map.Entry<File, Entry> file : found.entrySet()) {
+				if (this.entries.putIfAbsent(file.getKey(), file.getValue()) == null) {
+					this.size += file.getValue().size;
+				}
+			}
+			evicted = evict(null);
+		}
+		notifyEvicted(evicted);
+	}
+
+	/**
+	 * Record an access to a file, starting to track it if needed, and evict other files if the
+	 * quota is exceeded. The accessed file itself is never evicted by this call.
+	 *
+	 * @param file the file
+	 */
+	public void accessed(File file) {
+		List<File> evicted;
+		synchronized (this) {
+			Entry entry = getEntry(file);
+			entry.lastAccess = tick();
+			entry.accesses++;
+			evicted = evict(file);
+		}
+		notifyEvicted(evicted);
+	}
+
+	/**
+	 * Protect a file from eviction, for as long as it has been retained more often than it has
+	 * been {@link #release(File) released}.
+	 *
+	 * @param file the file
+	 * @return whether the file has been retained, {@code false} if it does not exist, for example
+	 * because it has just been evicted
+	 */
+	public synchronized boolean retain(File file) {
+		// checked under the lock, so the file can not be evicted before it is retained
+		if (!file.exists()) {
+			return false;
+		}
+		getEntry(file).references++;
+		return true;
+	}
+
+	/**
+	 * Return the file of a resource, protected from eviction until it is {@link #release(File)
+	 * released}. Should the file be evicted before it could be retained, it is obtained from the
+	 * resource again, which downloads it again if needed.
+	 *
+	 * @param resource the resource
+	 * @return the retained file
+	 * @throws IOException if the file could not be obtained from the resource
+	 */
+	public File retain(Resource resource) throws IOException {
+		for (int attempt = 0; attempt < MAX_RETAIN_ATTEMPTS; attempt++) {
+			File file = resource.getFile();
+			if (retain(file)) {
+				return file;
+			}
+		}
+		throw new FileNotFoundException(resource.getDescription() + " was evicted before it could be retained");
+	}
+
+	/**
+	 * Release a file {@link #retain(File) retained} before, allowing it to be evicted again once
+	 * it is no longer retained at all.
+	 *
+	 * @param file the file
+	 */
+	public void release(File file) {
+		List<File> evicted;
+		synchronized (this) {
+			Entry entry = this.entries.get(file);
+			if (entry == null || entry.references == 0) {
+				return;
+			}
+			entry.references--;
+			evicted = evict(null);
+		}
+		notifyEvicted(evicted);
+	}
+
+	/**
+	 * Evict files until the tracked files are within the quota again, as far as possible without
+	 * evicting retained files.
+	 */
+	public void evict() {
+		List<File> evicted;
+		synchronized (this) {
+			evicted = evict(null);
+		}
+		notifyEvicted(evicted);
+	}
+
+	private Entry getEntry(File file) {
+		Entry entry = this.entries.get(file);
+		long length = file.length();
+		if (entry == null) {
+			entry = new Entry(length, tick());
+			this.entries.put(file, entry);
+			this.size += length;
+		}
+		else if (entry.size != length) {
+			// the file has been replaced since it was last seen
+			this.size += length - entry.size;
+			entry.size = length;
+		}
+		return entry;
+	}
+
+	private long tick() {
+		// strictly increasing, so that accesses within the same millisecond are still ordered
+		this.clock = Math.max(this.clock + 1, System.currentTimeMillis());
+		return this.clock;
+	}
+
+	private List<File> evict(File keep) {
+		List<File> evicted = new ArrayList<>();
+		if (this.size <= this.quota) {
+			return evicted;
+		}
+		// only the files chosen for eviction are touched, the others are not checked on disk
+		List<Map.Entry<File, Entry>> candidates = new ArrayList<>();
+		for (Map.Entry<File, Entry> candidate : this.entries.entrySet()) {
+			if (candidate.getValue().references == 0 && !candidate.getKey().equals(keep)) {
+				candidates.add(candidate);
+			}
+		}
+		candidates.sort(Map.Entry.comparingByValue(this.policy.order));
+		for (int i = 0; i < candidates.size() && this.size > this.quota; i++) {
+			File file = candidates.get(i).getKey();
+			boolean deleted = file.delete();
+			if (deleted || !file.exists()) {
+				this.size -= candidates.get(i).getValue().size;
+				this.entries.remove(file);
+			}
+			if (deleted) {
+				this.evictions++;
+				evicted.add(file);
+				logger.info("Evicted " + file.getAbsolutePath() + " to stay within the artifact cache quota of "
+						+ this.quota + " bytes");
+			}
+		}
+		if (this.size > this.quota) {
+			logger.warn("Artifact cache exceeds its quota of " + this.quota + " bytes with " + this.size
+					+ " bytes, as the remaining files are in use");
+		}
+		return evicted;
+	}
+
+	private void notifyEvicted(List<File> evicted) {
+		for (File file : evicted) {
+			for (Consumer<File> listener : this.evictionListeners) {
+				listener.accept(file);
+			}
+		}
+	}
+
+	private static void collect(File directory, FileFilter filter, Map<File, Entry> files) {
+		File[] children = directory.listFiles();
+		if (children == null) {
+			return;
+		}
+		for (File child : children) {
+			if (child.isDirectory()) {
+				collect(child, filter, files);
+			}
+			else if (filter.accept(child)) {
+				Entry entry = new Entry(child.length(), child.lastModified());
+				entry.accesses = 1;
+				files.put(child, entry);
+			}
+		}
+	}
+
+	private static final class Entry {
+
+		private long size;
+
+		private long lastAccess;
+
+		private long accesses;
+
+		private int references;
+
+		Entry(long size, long lastAccess) {
+			this.size = size;
+			this.lastAccess = lastAccess;
+		}
+
+	}
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.support;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Resolves resources to files without blocking the calling thread. The first
+ * {@link Resource#getFile()} of a remote resource, such as a Maven artifact or an HTTP download,
+ * blocks for as long as the download takes, so it is run on a dedicated pool instead and the
+ * file is returned as a {@link CompletableFuture}.
+ * <p>
+ * The pool is bounded both in threads and in queued resolutions; a resolution that does not fit
+ * fails with a {@link RejectedExecutionException} rather than piling up. Concurrent resolutions of
+ * the same resource share a single task, though each caller gets a future of its own. Threads of
+ * the pool time out when idle, so a resolver does not need to be shut down.
+ */
+public class AsyncResourceResolver {
+
+	/**
+	 * The default number of resolutions run at once.
+	 */
+	public static final int DEFAULT_PARALLELISM = 4;
+
+	/**
+	 * The default number of resolutions waiting for a thread before new ones are rejected.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+	private final ResourceLoader resourceLoader;
+
+	private final ThreadPoolExecutor executor;
+
+	private final ConcurrentMap<Resource, CompletableFuture<File>> inFlightResolutions = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a resolver with {@link #DEFAULT_PARALLELISM} threads and a queue of
+	 * {@link #DEFAULT_QUEUE_CAPACITY} resolutions.
+	 *
+	 * @param resourceLoader the loader to look up locations with, typically a
+	 * {@link DelegatingResourceLoader}
+	 */
+	public AsyncResourceResolver(ResourceLoader resourceLoader) {
+		this(resourceLoader, DEFAULT_PARALLELISM, DEFAULT_QUEUE_CAPACITY);
+	}
+
+	/**
+	 * Create a resolver.
+	 *
+	 * @param resourceLoader the loader to look up locations with, typically a
+	 * {@link DelegatingResourceLoader}
+	 * @param parallelism the number of resolutions run at once
+	 * @param queueCapacity the number of resolutions waiting for a thread before new ones are
+	 * rejected
+	 */
+	public AsyncResourceResolver(ResourceLoader resourceLoader, int parallelism, int queueCapacity) {
+		Assert.notNull(resourceLoader, "resourceLoader must not be null");
+		Assert.isTrue(parallelism > 0, "parallelism must be greater than 0");
+		Assert.isTrue(queueCapacity > 0, "queueCapacity must be greater than 0");
+		this.resourceLoader = resourceLoader;
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("resource-resolver-");
+		threadFactory.setDaemon(true);
+		this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(queueCapacity), threadFactory);
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Look up a location and resolve it to a file.
+	 *
+	 * @param location the location of the resource
+	 * @return a future completed with the file, or exceptionally if the location could not be
+	 * looked up or resolved
+	 * @see #resolve(Resource)
+	 */
+	public CompletableFuture<File> resolve(String location) {
+		Resource resource;
+		try {
+			resource = this.resourceLoader.getResource(location);
+		}
+		catch (RuntimeException e) {
+			CompletableFuture<File> failure = new CompletableFuture<>();
+			failure.completeExceptionally(e);
+			return failure;
+		}
+		return resolve(resource);
+	}
+
+	/**
+	 * Resolve a resource to a file, downloading it if needed.
+	 *
+	 * @param resource the resource
+	 * @return a future completed with the file, or exceptionally with the failure of
+	 * {@link Resource#getFile()}, or a {@link RejectedExecutionException} if too many resolutions
+	 * are waiting already
+	 */
+	public CompletableFuture<File> resolve(Resource resource) {
+		Assert.notNull(resource, "resource must not be null");
+		CompletableFuture<File> resolution = new CompletableFuture<>();
+		CompletableFuture<File> inFlight = this.inFlightResolutions.putIfAbsent(resource, resolution);
+		if (inFlight != null) {
+			return dependent(inFlight);
+		}
+		try {
+			this.executor.execute(() -> {
+				try {
+					File file = resource.getFile();
+					// deregister before completing, so a caller seeing the outcome can start over
+					this.inFlightResolutions.remove(resource, resolution);
+					resolution.complete(file);
+				}
+				catch (Throwable e) {
+					this.inFlightResolutions.remove(resource, resolution);
+					resolution.completeExceptionally(e);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			this.inFlightResolutions.remove(resource, resolution);
+			resolution.completeExceptionally(e);
+		}
+		return dependent(resolution);
+	}
+
+	/**
+	 * Create a future for a single caller of a resolution, so that completing or cancelling it
+	 * affects no one else. Unlike {@code thenApply}, failures are passed on without being wrapped
+	 * in a {@link java.util.concurrent.CompletionException}.
+	 */
+	private static CompletableFuture<File> dependent(CompletableFuture<File> resolution) {
+		CompletableFuture<File> dependent = new CompletableFuture<>();
+		resolution.whenComplete((file, e) -> {
+			if (e != null) {
+				dependent.completeExceptionally(e);
+			}
+			else {
+				dependent.complete(file);
+			}
+		});
+		return dependent;
+	}
+
+	/**
+	 * @return the number of resolutions waiting for a thread
+	 */
+	public int getQueuedCount() {
+		return this.executor.getQueue().size();
+	}
+
+	/**
+	 * @return the number of resolutions running
+	 */
+	public int getActiveCount() {
+		return this.executor.getActiveCount();
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.support;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ResourceLoader} that remembers the resources returned by another loader, so that
+ * repeated lookups of the same location return the same, possibly already resolved, resource
+ * instead of parsing the location again.
+ * <p>
+ * The cache is bounded to a maximum number of locations, evicting the least recently used ones,
+ * and entries expire after a time to live so that changes behind a location are eventually picked
+ * up. Resources are only weakly referenced, so a resource no longer used elsewhere can be
+ * reclaimed before it is evicted.
+ */
+public class CachingResourceLoader implements ResourceLoader {
+
+	private final ResourceLoader delegate;
+
+	private final long timeToLiveNanos;
+
+	private final Map<String, Entry> entries;
+
+	private final ReferenceQueue<Resource> reclaimed = new ReferenceQueue<>();
+
+	/**
+	 * Create a loader caching the resources of the given loader.
+	 *
+	 * @param delegate the loader to cache the resources of
+	 * @param maxEntries the maximum number of locations to cache
+	 * @param timeToLive how long a resource is cached for, or {@code null} to cache resources until
+	 * they are evicted or reclaimed
+	 */
+	public CachingResourceLoader(ResourceLoader delegate, final int maxEntries, Duration timeToLive) {
+		Assert.notNull(delegate, "delegate must not be null");
+		Assert.isTrue(maxEntries > 0, "maxEntries must be greater than 0");
+		Assert.isTrue(timeToLive == null || !timeToLive.isNegative(), "timeToLive must not be negative");
+		this.delegate = delegate;
+		this.timeToLiveNanos = timeToLive != null ? timeToLive.toNanos() : Long.MAX_VALUE;
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	public ResourceLoader getDelegate() {
+		return this.delegate;
+	}
+
+	@Override
+	public Resource getResource(String location) {
+		Entry entry;
+		synchronized (this.entries) {
+			entry = this.entries.get(location);
+		}
+		if (entry != null) {
+			Resource resource = entry.get();
+			if (resource != null && !entry.isExpired(System.nanoTime())) {
+				return resource;
+			}
+		}
+		Resource resource = this.delegate.getResource(location);
+		long expiresAt = this.timeToLiveNanos == Long.MAX_VALUE ? Long.MAX_VALUE
+				: System.nanoTime() + this.timeToLiveNanos;
+		synchronized (this.entries) {
+			purgeReclaimed();
+			this.entries.put(location, new Entry(location, resource, expiresAt, this.reclaimed));
+		}
+		return resource;
+	}
+
+	@Override
+	public ClassLoader getClassLoader() {
+		return this.delegate.getClassLoader();
+	}
+
+	int size() {
+		synchronized (this.entries) {
+			purgeReclaimed();
+			return this.entries.size();
+		}
+	}
+
+	private void purgeReclaimed() {
+		Entry entry;
+		while ((entry = (Entry) this.reclaimed.poll()) != null) {
+			this.entries.remove(entry.location, entry);
+		}
+	}
+
+	private static final class Entry extends WeakReference<Resource> {
+
+		private final String location;
+
+		private final long expiresAt;
+
+		Entry(String location, Resource resource, long expiresAt, ReferenceQueue<Resource> queue) {
+			super(resource, queue);
+			this.location = location;
+			this.expiresAt = expiresAt;
+		}
+
+		boolean isExpired(long now) {
+			return this.expiresAt != Long.MAX_VALUE && now - this.expiresAt >= 0;
+		}
+	}
+}
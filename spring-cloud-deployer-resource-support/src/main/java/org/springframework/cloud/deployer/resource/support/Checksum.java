@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.support;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * The expected digest of a downloaded file, given in the fragment of its URL, such as
+ * {@code #sha256=<hex>}, or published next to it in a {@code .sha256} or {@code .sha1} file.
+ */
+class Checksum {
+
+	private static final String[][] ALGORITHMS = { { "sha256", "SHA-256" }, { "sha1", "SHA-1" } };
+
+	private final String algorithm;
+
+	private final String value;
+
+	private final String source;
+
+	Checksum(String algorithm, String value, String source) {
+		this.algorithm = algorithm;
+		this.value = value.toLowerCase(Locale.ROOT);
+		this.source = source;
+	}
+
+	/**
+	 * Return the checksum given in the fragment of a URL.
+	 *
+	 * @param url the URL
+	 * @return the checksum, or {@code null} if the fragment does not name one
+	 */
+	static Checksum fromFragment(URL url) {
+		String fragment = url.getRef();
+		if (fragment != null) {
+			for (String[] algorithm : ALGORITHMS) {
+				if (fragment.startsWith(algorithm[0] + "=")) {
+					return new Checksum(algorithm[1], fragment.substring(algorithm[0].length() + 1), url.toString());
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Fetch the checksum published next to a file, trying the stronger algorithms first.
+	 *
+	 * @param url the URL of the file
+	 * @return the checksum, or {@code null} if none is published
+	 * @throws IOException if a checksum file exists but could not be read
+	 */
+	static Checksum fetch(URL url) throws IOException {
+		String file = url.toString();
+		if (url.getRef() != null) {
+			file = file.substring(0, file.indexOf('#'));
+		}
+		for (String[] algorithm : ALGORITHMS) {
+			URL sidecar = new URL(file + "." + algorithm[0]);
+			URLConnection connection = sidecar.openConnection();
+			ResourceUtils.useCachesIfNecessary(connection);
+			if (connection instanceof HttpURLConnection
+					&& ((HttpURLConnection) connection).getResponseCode() == HttpURLConnection.HTTP_NOT_FOUND) {
+				continue;
+			}
+			String content;
+			try (InputStream is = connection.getInputStream()) {
+				content = StreamUtils.copyToString(is, StandardCharsets.US_ASCII).trim();
+			}
+			catch (FileNotFoundException e) {
+				continue;
+			}
+			// checksum files may name the file after the digest, as written by sha256sum
+			int end = 0;
+			while (end < content.length() && !Character.isWhitespace(content.charAt(end))) {
+				end++;
+			}
+			return new Checksum(algorithm[1], content.substring(0, end), sidecar.toString());
+		}
+		return null;
+	}
+
+	MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(this.algorithm);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Verify the digest computed while downloading a file.
+	 *
+	 * @param digest the digest, as returned by {@link #newDigest()} and updated with the file
+	 * @param url the URL of the file
+	 * @throws IOException if the digest does not match
+	 */
+	void verify(MessageDigest digest, URL url) throws IOException {
+		String actual = ShaUtils.encodeHex(digest.digest());
+		if (!actual.equals(this.value)) {
+			throw new IOException("Checksum validation failed for " + url + ", expected " + this.algorithm + " "
+					+ this.value + " from " + this.source + " but was " + actual);
+		}
+	}
+
+}
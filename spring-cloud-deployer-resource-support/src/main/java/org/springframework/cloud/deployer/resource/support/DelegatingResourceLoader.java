@@ -16,8 +16,9 @@
 
 package org.springframework.cloud.deployer.resource.support;
 
-import java.net.URI;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
 
 import org.springframework.context.ResourceLoaderAware;
@@ -31,8 +32,9 @@ import org.springframework.util.CollectionUtils;
 /**
  * A {@link ResourceLoader} implementation that delegates to other {@link ResourceLoader} instances
  * that are stored in a Map with their associated URI schemes as the keys. If a scheme does not
- * exist within the Map, it will fallback to a {@link DefaultResourceLoader}.
- * The Map may be empty (or {@literal null}).
+ * exist within the Map, it will fallback to a {@link DefaultResourceLoader}, or to a shared
+ * {@link DownloadingUrlResourceLoader} for {@code http} and {@code https} locations.
+ * The Map may be empty (or {@literal null}). Schemes are matched case-insensitively.
  *
  * @author Mark Fisher
  * @author Janne Valkealahti
@@ -46,6 +48,17 @@ public class DelegatingResourceLoader implements ResourceLoader, ResourceLoaderA
 
 	private ResourceLoader defaultResourceLoader = new DefaultResourceLoader();
 
+	private final ResourceLoader downloadingResourceLoader = new DownloadingUrlResourceLoader();
+
+	/**
+	 * Lower case schemes and their loaders, including the fallbacks for {@code http} and
+	 * {@code https}, computed once so that a lookup only needs to compare the scheme of the location
+	 * in place rather than parse it.
+	 */
+	private final String[] schemes;
+
+	private final ResourceLoader[] schemeLoaders;
+
 	/**
 	 * Instantiates a new delegating resource loader.
 	 */
@@ -62,6 +75,14 @@ public class DelegatingResourceLoader implements ResourceLoader, ResourceLoaderA
 		this.loaders = CollectionUtils.isEmpty(loaders)
 				? Collections.<String, ResourceLoader>emptyMap()
 				: Collections.unmodifiableMap(loaders);
+		Map<String, ResourceLoader> dispatch = new LinkedHashMap<>();
+		for (Map.Entry<String, ResourceLoader> entry : this.loaders.entrySet()) {
+			dispatch.put(entry.getKey().toLowerCase(Locale.ROOT), entry.getValue());
+		}
+		dispatch.putIfAbsent("http", this.downloadingResourceLoader);
+		dispatch.putIfAbsent("https", this.downloadingResourceLoader);
+		this.schemes = dispatch.keySet().toArray(new String[0]);
+		this.schemeLoaders = dispatch.values().toArray(new ResourceLoader[0]);
 	}
 
 	@Override
@@ -74,19 +95,9 @@ public class DelegatingResourceLoader implements ResourceLoader, ResourceLoaderA
 	@Override
 	public Resource getResource(String location) {
 		try {
-			URI uri = new URI(location);
-			String scheme = uri.getScheme();
-			Assert.notNull(scheme, "a scheme (prefix) is required");
-			ResourceLoader loader = this.loaders.get(scheme);
-			if (loader == null) {
-				if (scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https")) {
-					loader = new DownloadingUrlResourceLoader();
-				}
-				else {
-					loader = this.defaultResourceLoader;
-				}
-			}
-			return loader.getResource(location);
+			int schemeLength = schemeLength(location);
+			Assert.isTrue(schemeLength > 0, "a scheme (prefix) is required");
+			return getLoader(location, schemeLength).getResource(location);
 		}
 		catch (Exception e) {
 			throw new ResourceNotResolvedException(e.getMessage(), e);
@@ -94,6 +105,37 @@ public class DelegatingResourceLoader implements ResourceLoader, ResourceLoaderA
 
 	}
 
+	private ResourceLoader getLoader(String location, int schemeLength) {
+		for (int i = 0; i < this.schemes.length; i++) {
+			String scheme = this.schemes[i];
+			if (scheme.length() == schemeLength && location.regionMatches(true, 0, scheme, 0, schemeLength)) {
+				return this.schemeLoaders[i];
+			}
+		}
+		return this.defaultResourceLoader;
+	}
+
+	/**
+	 * Return the length of the scheme of a location, following the syntax of RFC 3986: a letter
+	 * followed by letters, digits, {@code +}, {@code -} or {@code .}, terminated by a colon.
+	 *
+	 * @param location the location
+	 * @return the length of the scheme, or {@code -1} if the location does not start with one
+	 */
+	static int schemeLength(String location) {
+		for (int i = 0; i < location.length(); i++) {
+			char c = location.charAt(i);
+			if (c == ':') {
+				return i > 0 ? i : -1;
+			}
+			boolean letter = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+			if (!letter && (i == 0 || !((c >= '0' && c <= '9') || c == '+' || c == '-' || c == '.'))) {
+				return -1;
+			}
+		}
+		return -1;
+	}
+
 	@Override
 	public ClassLoader getClassLoader() {
 		return this.classLoader;
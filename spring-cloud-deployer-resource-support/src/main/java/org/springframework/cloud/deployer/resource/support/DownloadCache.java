@@ -0,0 +1,526 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.support;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * A directory of downloaded files that outlives {@link DownloadingUrlResource} instances and
+ * application restarts. Files are stored under a name derived from their URL, see
+ * {@link DownloadingUrlResource#getFile()}.
+ * <p>
+ * The cache can be bounded in size: whenever a download is added and the total size of the cached
+ * files exceeds the maximum size, the least recently used files are deleted. The last modified
+ * time of a file is updated each time it is served, so recency is retained across restarts.
+ * Eviction is delegated to an {@link ArtifactCacheManager}, which may be shared with other
+ * caches to bound them all with a single quota and a different {@link
+ * ArtifactCacheManager.EvictionPolicy policy}. As a file may be evicted while an application runs
+ * from it unless it is {@link ArtifactCacheManager#retain(org.springframework.core.io.Resource)
+ * retained}, caches are unbounded unless created with a maximum size or a manager.
+ * <p>
+ * Alongside a file, the cache can store metadata such as the HTTP validators it was served with,
+ * so that it can be revalidated with a conditional request later on. Downloads that were
+ * interrupted are kept as partial downloads, so that they can be resumed. Concurrent downloads of
+ * the same file are performed only once, see {@link #download(String, Downloader)}.
+ * <p>
+ * Caches in the same directory, such as the {@link #getDefault() default cache} and one created
+ * by the application, share their downloads in progress. A cache created without a manager
+ * also uses the manager of the cache created last with one in the same directory, so that all
+ * of them are kept within the same quota.
+ *
+ * <p>
+ * As cached files are run as applications, the directory must not be writable by others: on
+ * POSIX file systems it is created accessible to its owner only, and a directory owned by another
+ * user or writable by others is refused.
+ *
+ * @see #getDefault()
+ */
+public class DownloadCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(DownloadCache.class);
+
+	/**
+	 * The directory of the default cache, {@code .spring-cloud-deployer/downloads} in the home
+	 * directory of the user. A cache in another directory, such as one shared by several
+	 * applications, is created with {@link #DownloadCache(File)}.
+	 */
+	public static final File DEFAULT_DIRECTORY = new File(System.getProperty("user.home"),
+			".spring-cloud-deployer" + File.separator + "downloads");
+
+	private static final String DOWNLOAD_SUFFIX = ".download";
+
+	private static final String METADATA_SUFFIX = ".meta";
+
+	private static final String PARTIAL_SUFFIX = ".part";
+
+	private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+	private static final ConcurrentMap<File, SharedDirectory> sharedDirectories = new ConcurrentHashMap<>();
+
+	private static volatile DownloadCache defaultCache;
+
+	private final File directory;
+
+	private final ArtifactCacheManager cacheManager;
+
+	private final SharedDirectory shared;
+
+	private final AtomicBoolean tracked = new AtomicBoolean();
+
+	private volatile boolean directoryVerified;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Create a cache in the given directory, unbounded unless another cache in the same directory
+	 * has been created with a manager.
+	 *
+	 * @param directory the directory to store downloaded files in
+	 */
+	public DownloadCache(File directory) {
+		Assert.notNull(directory, "directory must not be null");
+		this.directory = normalize(directory);
+		this.cacheManager = null;
+		this.shared = share(this.directory);
+	}
+
+	/**
+	 * Create a cache in the given directory.
+	 *
+	 * @param directory the directory to store downloaded files in
+	 * @param maxSize the maximum total size in bytes of the cached files
+	 */
+	public DownloadCache(File directory, long maxSize) {
+		this(directory, new ArtifactCacheManager(maxSize, ArtifactCacheManager.EvictionPolicy.LEAST_RECENTLY_USED));
+	}
+
+	/**
+	 * Create a cache in the given directory whose files are kept within the quota of the given
+	 * manager.
+	 *
+	 * @param directory the directory to store downloaded files in
+	 * @param cacheManager the manager to track the cached files with
+	 */
+	public DownloadCache(File directory, ArtifactCacheManager cacheManager) {
+		Assert.notNull(directory, "directory must not be null");
+		Assert.notNull(cacheManager, "cacheManager must not be null");
+		this.directory = normalize(directory);
+		this.cacheManager = cacheManager;
+		this.shared = share(this.directory);
+		this.shared.cacheManager = cacheManager;
+		this.cacheManager.addEvictionListener(this::evicted);
+	}
+
+	/**
+	 * Return the cache shared by all resources that are not given a cache explicitly, located in
+	 * {@link #DEFAULT_DIRECTORY} and unbounded.
+	 *
+	 * @return the default cache
+	 */
+	public static DownloadCache getDefault() {
+		DownloadCache cache = defaultCache;
+		if (cache == null) {
+			synchronized (DownloadCache.class) {
+				cache = defaultCache;
+				if (cache == null) {
+					cache = new DownloadCache(DEFAULT_DIRECTORY);
+					defaultCache = cache;
+				}
+			}
+		}
+		return cache;
+	}
+
+	public File getDirectory() {
+		return this.directory;
+	}
+
+	/**
+	 * @return the quota of the {@link #getCacheManager() manager}, which may be shared with other
+	 * caches, or {@link Long#MAX_VALUE} if the cache is unbounded
+	 */
+	public long getMaxSize() {
+		ArtifactCacheManager cacheManager = getCacheManager();
+		return cacheManager != null ? cacheManager.getQuota() : Long.MAX_VALUE;
+	}
+
+	/**
+	 * @return the manager the cached files are tracked with, or {@code null} if the cache is
+	 * unbounded
+	 */
+	public ArtifactCacheManager getCacheManager() {
+		return this.cacheManager != null ? this.cacheManager : this.shared.cacheManager;
+	}
+
+	/**
+	 * @return the number of lookups that found a cached file
+	 */
+	public long getHitCount() {
+		return this.hits.get();
+	}
+
+	/**
+	 * @return the number of lookups that required a download
+	 */
+	public long getMissCount() {
+		return this.misses.get();
+	}
+
+	/**
+	 * @return the number of files deleted to stay within the maximum size
+	 */
+	public long getEvictionCount() {
+		return this.evictions.get();
+	}
+
+	/**
+	 * Look up a cached file, marking it as recently used.
+	 *
+	 * @param name the name of the file
+	 * @return the cached file, or {@code null} if it needs to be downloaded
+	 * @throws IOException if the cache directory could not be created or is not safe to use
+	 */
+	File get(String name) throws IOException {
+		File file = find(name);
+		if (file != null) {
+			recordHit(file);
+		}
+		else {
+			recordMiss();
+		}
+		return file;
+	}
+
+	/**
+	 * Download a file, unless a download of the same file is in progress already in this or another
+	 * cache in the same directory, in which case wait for that download to complete and share its
+	 * outcome. The waiting is counted as a hit.
+	 *
+	 * @param name the name of the file once cached
+	 * @param downloader the download to perform if none is in progress
+	 * @return the downloaded file
+	 * @throws IOException if the download failed
+	 */
+	File download(String name, Downloader downloader) throws IOException {
+		CompletableFuture<File> download = new CompletableFuture<>();
+		CompletableFuture<File> inProgress = this.shared.downloads.putIfAbsent(name, download);
+		if (inProgress != null) {
+			File file = await(name, inProgress);
+			recordHit(file);
+			return file;
+		}
+		try {
+			File file = downloader.download();
+			download.complete(file);
+			return file;
+		}
+		catch (IOException | RuntimeException | Error e) {
+			download.completeExceptionally(e);
+			throw e;
+		}
+		finally {
+			this.shared.downloads.remove(name, download);
+		}
+	}
+
+	private File await(String name, CompletableFuture<File> download) throws IOException {
+		try {
+			return download.get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the download of " + name);
+		}
+		catch (ExecutionException e) {
+			throw new IOException("Download of " + name + " failed", e.getCause());
+		}
+	}
+
+	/**
+	 * Look up a cached file without counting the lookup, for files that need to be revalidated
+	 * before they can be served.
+	 *
+	 * @param name the name of the file
+	 * @return the cached file, or {@code null} if there is none
+	 * @throws IOException if the cache directory could not be created or is not safe to use
+	 */
+	File find(String name) throws IOException {
+		createDirectory();
+		File file = new File(this.directory, name);
+		return file.isFile() ? file : null;
+	}
+
+	/**
+	 * Record that a cached file has been served, marking it as recently used.
+	 */
+	void recordHit(File file) {
+		file.setLastModified(System.currentTimeMillis());
+		this.hits.incrementAndGet();
+		accessed(file);
+	}
+
+	/**
+	 * Record that a file had to be downloaded.
+	 */
+	void recordMiss() {
+		this.misses.incrementAndGet();
+	}
+
+	/**
+	 * Read the metadata stored alongside a cached file.
+	 *
+	 * @param name the name of the file
+	 * @return the metadata, empty if none has been stored or it can not be read
+	 */
+	Properties getMetadata(String name) {
+		Properties metadata = new Properties();
+		File file = new File(this.directory, name + METADATA_SUFFIX);
+		if (file.isFile()) {
+			try (InputStream is = new FileInputStream(file)) {
+				metadata.load(is);
+			}
+			catch (IOException e) {
+				logger.warn("Could not read " + file.getAbsolutePath() + ", ignoring it", e);
+				metadata.clear();
+			}
+		}
+		return metadata;
+	}
+
+	/**
+	 * Store metadata alongside a cached file, replacing any previous metadata.
+	 *
+	 * @param name the name of the file
+	 * @param metadata the metadata, removing any previous metadata if empty
+	 * @throws IOException if the metadata could not be written
+	 */
+	void setMetadata(String name, Properties metadata) throws IOException {
+		File file = new File(this.directory, name + METADATA_SUFFIX);
+		if (metadata.isEmpty()) {
+			file.delete();
+			return;
+		}
+		createDirectory();
+		try (OutputStream os = new FileOutputStream(file)) {
+			metadata.store(os, null);
+		}
+	}
+
+	/**
+	 * Return the file a download is written to while it is in progress, and kept in when it is
+	 * interrupted. Unlike {@link #newDownloadFile(String)}, the name is the same for every
+	 * download of a file; it is up to the caller to make sure there is only one at a time.
+	 *
+	 * @param name the name of the file once cached
+	 * @return the partial download, which may or may not exist
+	 * @throws IOException if the cache directory could not be created
+	 */
+	File getPartialDownloadFile(String name) throws IOException {
+		createDirectory();
+		return new File(this.directory, name + PARTIAL_SUFFIX);
+	}
+
+	/**
+	 * Delete a partial download and its metadata, so that the next download starts over.
+	 *
+	 * @param name the name of the file once cached
+	 */
+	void discardPartialDownload(String name) {
+		new File(this.directory, name + PARTIAL_SUFFIX).delete();
+		new File(this.directory, name + PARTIAL_SUFFIX + METADATA_SUFFIX).delete();
+	}
+
+	/**
+	 * Create the file to download into before it is added with {@link #put(String, File)}. Its name
+	 * is unique, so concurrent downloads of the same file do not interfere.
+	 *
+	 * @param name the name of the file once cached
+	 * @return a new, empty file in the cache directory
+	 * @throws IOException if the file could not be created
+	 */
+	File newDownloadFile(String name) throws IOException {
+		createDirectory();
+		return File.createTempFile(name + ".", DOWNLOAD_SUFFIX, this.directory);
+	}
+
+	/**
+	 * Add a completed download to the cache, replacing any file with the same name, and evict other
+	 * files if the cache has outgrown its maximum size. The download is renamed
+	 * atomically where the file system supports it, so a cached file is never seen incomplete.
+	 *
+	 * @param name the name of the file
+	 * @param download the downloaded file, created by {@link #newDownloadFile(String)}
+	 * @return the cached file
+	 * @throws IOException if the download could not be moved into place
+	 */
+	File put(String name, File download) throws IOException {
+		return put(name, download, new Properties());
+	}
+
+	/**
+	 * Add a completed download to the cache along with its metadata.
+	 *
+	 * @param name the name of the file
+	 * @param download the downloaded file, created by {@link #newDownloadFile(String)} or
+	 * {@link #getPartialDownloadFile(String)}
+	 * @param metadata the metadata to store alongside the file, replacing any previous metadata
+	 * @return the cached file
+	 * @throws IOException if the download could not be moved into place
+	 * @see #getMetadata(String)
+	 */
+	File put(String name, File download, Properties metadata) throws IOException {
+		File file = new File(this.directory, name);
+		try {
+			try {
+				Files.move(download.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(download.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException e) {
+			// the previous metadata may not match whatever file is left in place
+			setMetadata(name, new Properties());
+			throw e;
+		}
+		// written once the file is in place, so metadata never describes a file it does not belong to
+		setMetadata(name, metadata);
+		new File(this.directory, download.getName() + METADATA_SUFFIX).delete();
+		accessed(file);
+		return file;
+	}
+
+	/**
+	 * Create the cache directory if needed, owner-only on POSIX file systems, and make sure it is
+	 * owned by and only writable by the current user, so that no one else can plant files that
+	 * would be served.
+	 */
+	private void createDirectory() throws IOException {
+		if (this.directoryVerified) {
+			return;
+		}
+		Path path = this.directory.toPath();
+		if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+			Files.createDirectories(path);
+			this.directoryVerified = true;
+			return;
+		}
+		Files.createDirectories(path, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+		// the owner of a new file is the current user, without having to look the user up by name
+		Path probe = Files.createTempFile(path, "owner.", DOWNLOAD_SUFFIX);
+		try {
+			UserPrincipal owner = Files.getOwner(path);
+			if (!owner.equals(Files.getOwner(probe))) {
+				throw new IOException("Refusing to use " + this.directory.getAbsolutePath()
+						+ " as download cache, as it is owned by " + owner.getName());
+			}
+			Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(path);
+			if (permissions.contains(PosixFilePermission.GROUP_WRITE)
+					|| permissions.contains(PosixFilePermission.OTHERS_WRITE)) {
+				throw new IOException("Refusing to use " + this.directory.getAbsolutePath()
+						+ " as download cache, as it is writable by others");
+			}
+		}
+		finally {
+			Files.delete(probe);
+		}
+		this.directoryVerified = true;
+	}
+
+	private void accessed(File file) {
+		ArtifactCacheManager cacheManager = getCacheManager();
+		if (cacheManager == null) {
+			return;
+		}
+		if (this.tracked.compareAndSet(false, true)) {
+			// picks up the files cached before a restart
+			cacheManager.track(this.directory, cached -> cached.getParentFile().equals(this.directory)
+					&& !cached.getName().endsWith(DOWNLOAD_SUFFIX) && !cached.getName().endsWith(METADATA_SUFFIX)
+					&& !cached.getName().endsWith(PARTIAL_SUFFIX));
+		}
+		cacheManager.accessed(file);
+	}
+
+	private void evicted(File file) {
+		if (this.directory.equals(file.getParentFile())) {
+			new File(this.directory, file.getName() + METADATA_SUFFIX).delete();
+			this.evictions.incrementAndGet();
+			logger.info("Evicted " + file.getAbsolutePath() + " from the download cache");
+		}
+	}
+
+	private static File normalize(File directory) {
+		// the same directory may be given as different paths
+		return directory.getAbsoluteFile().toPath().normalize().toFile();
+	}
+
+	private static SharedDirectory share(File directory) {
+		return sharedDirectories.computeIfAbsent(directory, key -> new SharedDirectory());
+	}
+
+	/**
+	 * The state shared by the caches in the same directory.
+	 */
+	private static final class SharedDirectory {
+
+		private final ConcurrentMap<String, CompletableFuture<File>> downloads = new ConcurrentHashMap<>();
+
+		private volatile ArtifactCacheManager cacheManager;
+
+	}
+
+	/**
+	 * A download performed by {@link DownloadCache#download(String, Downloader)}.
+	 */
+	interface Downloader {
+
+		File download() throws IOException;
+
+	}
+
+}
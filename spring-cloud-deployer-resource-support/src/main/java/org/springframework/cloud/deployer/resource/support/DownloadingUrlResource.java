@@ -21,23 +21,48 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cloud.deployer.resource.registry.UriRegistryPopulator;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
-import org.springframework.util.FileCopyUtils;
-import org.springframework.util.StringUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ResourceUtils;
 
+import java.io.EOFException;
 import java.io.File;
-import java.io.FileOutputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.file.Files;
+import java.net.URLConnection;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 /**
- * A {@link Resource} implementation that will download a {@link UrlResource} to a temp file when
- * the {@method getFile} is invoked.
+ * A {@link Resource} implementation that will download a {@link UrlResource} into a
+ * {@link DownloadCache} when the {@method getFile} is invoked. Files downloaded before, by this
+ * or any other instance for the same URL, are served from the cache. Files that were served over
+ * HTTP with an {@code ETag} or {@code Last-Modified} header are revalidated with a conditional
+ * request first, and only downloaded again if they have changed.
+ * <p>
+ * Large files can be downloaded in several parts at once from servers that accept range requests,
+ * see {@link #setParallelDownloadParts(int)}.
+ * <p>
+ * Resources do not lock: while a file is downloaded, other resources for the same URL and cache
+ * wait for that download rather than starting their own, and {@link #getDescription()} returns
+ * straight away.
  *
  * @author Ilayaperumal Gopinathan
  * @author Mark Pollack
@@ -46,62 +71,534 @@ public class DownloadingUrlResource extends UrlResource {
 
 	private static final Logger logger = LoggerFactory.getLogger(DownloadingUrlResource.class);
 
-	private File file;
+	private static final String ETAG = "ETag";
+
+	private static final String LAST_MODIFIED = "Last-Modified";
+
+	private static final long TRANSFER_SIZE = 8L * 1024 * 1024;
+
+	private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
 
 	/**
-	 * Create a new {@code DownloadingUrlResource} based on the given URI object.
+	 * The default minimum size of files downloaded in parts, 16 MiB.
+	 */
+	public static final long DEFAULT_PARALLEL_DOWNLOAD_THRESHOLD = 16L * 1024 * 1024;
+
+	/**
+	 * The default number of attempts to download a file, 3.
+	 */
+	public static final int DEFAULT_DOWNLOAD_ATTEMPTS = 3;
+
+	/**
+	 * The default delay before retrying a failed download, doubled for every further attempt, 1
+	 * second.
+	 */
+	public static final long DEFAULT_RETRY_BACKOFF = 1000;
+
+	/**
+	 * The default time a file is served by a resource without revalidating it, 1 minute.
+	 */
+	public static final long DEFAULT_REVALIDATION_INTERVAL = 60000;
+
+	private final DownloadCache cache;
+
+	private int parallelDownloadParts = 1;
+
+	private long parallelDownloadThreshold = DEFAULT_PARALLEL_DOWNLOAD_THRESHOLD;
+
+	private int downloadAttempts = DEFAULT_DOWNLOAD_ATTEMPTS;
+
+	private long retryBackoff = DEFAULT_RETRY_BACKOFF;
+
+	private boolean verifyChecksum;
+
+	private long revalidationInterval = DEFAULT_REVALIDATION_INTERVAL;
+
+	private volatile boolean shared;
+
+	private volatile long validatedAt;
+
+	private volatile File file;
+
+	/**
+	 * Create a new {@code DownloadingUrlResource} based on the given URI object, that downloads
+	 * into the {@link DownloadCache#getDefault() default cache}.
 	 * @param uri a URI
 	 * @throws MalformedURLException if the given URL path is not valid
 	 */
 	public DownloadingUrlResource(String uri) throws MalformedURLException {
+		this(uri, DownloadCache.getDefault());
+	}
+
+	/**
+	 * Create a new {@code DownloadingUrlResource} based on the given URI object.
+	 * @param uri a URI
+	 * @param cache the cache to download into
+	 * @throws MalformedURLException if the given URL path is not valid
+	 */
+	public DownloadingUrlResource(String uri, DownloadCache cache) throws MalformedURLException {
 		super(uri);
+		Assert.notNull(cache, "DownloadCache must not be null");
+		this.cache = cache;
+	}
+
+	/**
+	 * Set the number of parts to download large files in at once, each with its own range request.
+	 * Defaults to 1, downloading every file with a single request.
+	 * @param parallelDownloadParts the number of parts
+	 */
+	public void setParallelDownloadParts(int parallelDownloadParts) {
+		Assert.isTrue(parallelDownloadParts > 0, "parallelDownloadParts must be greater than 0");
+		assertNotShared();
+		this.parallelDownloadParts = parallelDownloadParts;
+	}
+
+	/**
+	 * Set the minimum size in bytes of files downloaded in parts. Defaults to
+	 * {@link #DEFAULT_PARALLEL_DOWNLOAD_THRESHOLD}.
+	 * @param parallelDownloadThreshold the minimum size
+	 */
+	public void setParallelDownloadThreshold(long parallelDownloadThreshold) {
+		assertNotShared();
+		this.parallelDownloadThreshold = parallelDownloadThreshold;
+	}
+
+	/**
+	 * Set the number of attempts to download a file before giving up. Defaults to
+	 * {@link #DEFAULT_DOWNLOAD_ATTEMPTS}.
+	 * @param downloadAttempts the number of attempts
+	 */
+	public void setDownloadAttempts(int downloadAttempts) {
+		Assert.isTrue(downloadAttempts > 0, "downloadAttempts must be greater than 0");
+		assertNotShared();
+		this.downloadAttempts = downloadAttempts;
+	}
+
+	/**
+	 * Set the delay in milliseconds before retrying a failed download, doubled for every further
+	 * attempt. Defaults to {@link #DEFAULT_RETRY_BACKOFF}.
+	 * @param retryBackoff the delay in milliseconds
+	 */
+	public void setRetryBackoff(long retryBackoff) {
+		Assert.isTrue(retryBackoff >= 0, "retryBackoff must not be negative");
+		assertNotShared();
+		this.retryBackoff = retryBackoff;
+	}
+
+	/**
+	 * Set whether to verify downloads against the checksum published next to them, in a file with
+	 * the same URL followed by {@code .sha256} or {@code .sha1}. A checksum given in the fragment
+	 * of the URL, such as {@code #sha256=<hex>}, is always verified. Defaults to {@code false}.
+	 * @param verifyChecksum whether to verify published checksums
+	 */
+	public void setVerifyChecksum(boolean verifyChecksum) {
+		assertNotShared();
+		this.verifyChecksum = verifyChecksum;
+	}
+
+	/**
+	 * Set the time in milliseconds this resource serves the file it returned last without
+	 * revalidating it, or 0 to revalidate the file on every call of {@link #getFile()}. Defaults to
+	 * {@link #DEFAULT_REVALIDATION_INTERVAL}.
+	 * @param revalidationInterval the time in milliseconds
+	 */
+	public void setRevalidationInterval(long revalidationInterval) {
+		Assert.isTrue(revalidationInterval >= 0, "revalidationInterval must not be negative");
+		assertNotShared();
+		this.revalidationInterval = revalidationInterval;
 	}
 
+	/**
+	 * Prevent further configuration of this resource, as it is handed out to every caller of a
+	 * {@link DownloadingUrlResourceLoader}.
+	 */
+	void share() {
+		this.shared = true;
+	}
+
+	private void assertNotShared() {
+		Assert.state(!this.shared, "Resource is shared by its DownloadingUrlResourceLoader and can not be "
+				+ "reconfigured, configure the loader instead");
+	}
 
 	/**
-	 * Downloads the file from the HTTP location to a temporary file.
-	 * The temporary file uses the directory prefix "spring-cloud-deployer" and the filename is
-	 * the SHA1 hash of the URL.  The file will only be downloaded on the first invocation
-	 * of this method.
+	 * Downloads the file from the HTTP location into the download cache, unless it has been
+	 * downloaded before. The filename is the SHA1 hash of the URL followed by the alphanumeric
+	 * characters of the last path segment of the URL. The file is downloaded under a temporary
+	 * name and only added to the cache once complete.
+	 * <p>
+	 * An HTTP download that is interrupted is kept as a partial download next to the cache entry
+	 * and resumed with a {@code Range} request by the next attempt, whether it is a retry or a
+	 * later call, as long as the server sent a validator to check that the file has not changed.
+	 * <p>
+	 * The digest of a download with a checksum to verify against is computed while it is written,
+	 * and a download that does not match is discarded.
+	 * <p>
+	 * A cached file with HTTP validators is revalidated with {@code If-None-Match} and
+	 * {@code If-Modified-Since}; a {@code 304 Not Modified} response, or a failure to reach the
+	 * server, serves the cached file. Once served, the file is returned again without a request
+	 * until the {@link #setRevalidationInterval(long) revalidation interval} has passed, or the file
+	 * has been evicted.
 	 * @return The downloaded file.
-	 * @throws IOException if there are errors downloading or writing the temporary file.
+	 * @throws IOException if there are errors downloading or writing the file.
 	 */
 	@Override
-	public synchronized File getFile() throws IOException {
-		if (file == null) {
-			// Create a well formatted filename, no dashes, slashes, etc from the URL
-			String simpleName = null;
+	public File getFile() throws IOException {
+		File file = this.file;
+		long interval = TimeUnit.MILLISECONDS.toNanos(this.revalidationInterval);
+		if (file != null && System.nanoTime() - this.validatedAt < interval && file.exists()) {
+			return file;
+		}
+		String fileName = getCacheFileName();
+		file = this.cache.download(fileName, () -> getCachedFile(fileName));
+		this.validatedAt = System.nanoTime();
+		this.file = file;
+		return file;
+	}
+
+	/**
+	 * Serve the file from the cache, revalidating or downloading it as needed. Only one thread at
+	 * a time runs this for a file, see {@link DownloadCache#download(String, DownloadCache.Downloader)}.
+	 */
+	private File getCachedFile(String fileName) throws IOException {
+		File cached = this.cache.find(fileName);
+		Properties validators = cached != null ? this.cache.getMetadata(fileName) : new Properties();
+		File downloaded = null;
+		if (cached == null || !validators.isEmpty()) {
 			try {
-				Path path = Paths.get(getURL().toURI().getPath());
-				simpleName = path.getFileName().toString().replaceAll("[^\\p{IsAlphabetic}^\\p{IsDigit}]", "");
-			} catch (URISyntaxException e) {
-				logger.info("Could not create simple name from last part of URL", e.getMessage());
+				downloaded = download(fileName, validators);
+			}
+			catch (IOException e) {
+				if (cached == null) {
+					throw e;
+				}
+				logger.warn("Could not revalidate [" + getURL().toString() + "], using the cached copy", e);
+			}
+		}
+		if (downloaded != null) {
+			this.cache.recordMiss();
+			return downloaded;
+		}
+		logger.info("Using [" + getURL().toString() + "] from the download cache: " + cached.getAbsolutePath());
+		this.cache.recordHit(cached);
+		return cached;
+	}
+
+	/**
+	 * Download the file, retrying failed attempts with an exponential backoff. Server errors and
+	 * failures to connect or to read a response are retried, client errors are not.
+	 * @return the downloaded file, or {@code null} if the cached file has not been modified
+	 */
+	private File download(String fileName, Properties validators) throws IOException {
+		for (int attempt = 1;; attempt++) {
+			try {
+				return attemptDownload(fileName, validators);
+			}
+			catch (IOException e) {
+				if (attempt >= this.downloadAttempts || !isRetryable(e)) {
+					throw e;
+				}
+				long backoff = this.retryBackoff << Math.min(attempt - 1, 16);
+				logger.warn("Download of [" + getURL().toString() + "] failed, retrying in " + backoff + "ms (attempt "
+						+ attempt + " of " + this.downloadAttempts + ")", e);
+				try {
+					Thread.sleep(backoff);
+				}
+				catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while retrying download of " + getURL());
+				}
+			}
+		}
+	}
+
+	private boolean isRetryable(IOException e) {
+		return !(e instanceof FileNotFoundException)
+				&& !(e instanceof HttpStatusException && ((HttpStatusException) e).status < 500);
+	}
+
+	private File attemptDownload(String fileName, Properties validators) throws IOException {
+		URLConnection connection = getURL().openConnection();
+		ResourceUtils.useCachesIfNecessary(connection);
+		if (!(connection instanceof HttpURLConnection)) {
+			try (InputStream body = connection.getInputStream()) {
+				Checksum checksum = getExpectedChecksum();
+				MessageDigest digest = checksum != null ? checksum.newDigest() : null;
+				File download = this.cache.newDownloadFile(fileName);
+				logger.info("Downloading [" + getURL().toString() + "] to " + download.getAbsolutePath());
+				try {
+					transfer(body, download, -1, digest);
+					verify(checksum, digest);
+					return this.cache.put(fileName, download);
+				}
+				finally {
+					download.delete();
+				}
 			}
-			String fileName = ShaUtils.sha1(getURL().toString());
-			if (simpleName != null) {
+		}
+		HttpURLConnection http = (HttpURLConnection) connection;
+		try {
+			return attemptDownload(fileName, validators, http);
+		}
+		finally {
+			// responses that are not read, such as 304 or errors, would otherwise hold on to the connection
+			InputStream error = http.getErrorStream();
+			if (error != null) {
 				try {
-					this.file = new File(Files.createTempDirectory("spring-cloud-deployer").toFile(),
-							fileName + "-" + simpleName);
-				} catch (IOException e) {
-					logger.info("Could not create simple temp file name using last part of URL");
+					error.close();
+				}
+				catch (IOException e) {
+					// ignore
 				}
 			}
-			if (file == null) {
-				this.file = new File(Files.createTempDirectory("spring-cloud-deployer").toFile(), fileName);
+			http.disconnect();
+		}
+	}
+
+	private File attemptDownload(String fileName, Properties validators, HttpURLConnection http) throws IOException {
+		String etag = validators.getProperty(ETAG);
+		if (etag != null) {
+			http.setRequestProperty("If-None-Match", etag);
+		}
+		String lastModified = validators.getProperty(LAST_MODIFIED);
+		if (lastModified != null) {
+			http.setRequestProperty("If-Modified-Since", lastModified);
+		}
+		File partial = this.cache.getPartialDownloadFile(fileName);
+		String partialValidator = getValidator(this.cache.getMetadata(partial.getName()));
+		long offset = partialValidator != null && partial.isFile() ? partial.length() : 0;
+		if (offset > 0) {
+			http.setRequestProperty("Range", "bytes=" + offset + "-");
+			http.setRequestProperty("If-Range", partialValidator);
+		}
+		int status = http.getResponseCode();
+		if (status == HttpURLConnection.HTTP_NOT_MODIFIED && !validators.isEmpty()) {
+			return null;
+		}
+		if (status == HttpURLConnection.HTTP_NOT_FOUND || status == HttpURLConnection.HTTP_GONE) {
+			throw new FileNotFoundException(getURL().toString());
+		}
+		if (status == HTTP_RANGE_NOT_SATISFIABLE) {
+			this.cache.discardPartialDownload(fileName);
+			throw new IOException("Could not resume download of " + getURL() + ", starting over");
+		}
+		if (status >= 400) {
+			throw new HttpStatusException(status, getURL());
+		}
+		try (InputStream body = http.getInputStream()) {
+			Properties downloadValidators = getValidators(http);
+			Checksum checksum = getExpectedChecksum();
+			MessageDigest digest = checksum != null ? checksum.newDigest() : null;
+			// parts arrive out of order, so they can not be digested while they are downloaded
+			if (status == HttpURLConnection.HTTP_OK && checksum == null && isRangeable(http)) {
+				File download = this.cache.newDownloadFile(fileName);
+				logger.info("Downloading [" + getURL().toString() + "] in " + this.parallelDownloadParts + " parts to "
+						+ download.getAbsolutePath());
+				try {
+					new RangedDownload(getURL(), http.getContentLengthLong(), getValidator(downloadValidators),
+							this.parallelDownloadParts).download(body, download);
+					return this.cache.put(fileName, download, downloadValidators);
+				}
+				finally {
+					download.delete();
+				}
 			}
-			// Get the input stream for the URLResource
-			logger.info("Downloading [" + getURL().toString() + "] to " + this.file.getAbsolutePath());
-			FileCopyUtils.copy(this.getInputStream(), new FileOutputStream(file));
+			try (FileChannel channel = FileChannel.open(partial.toPath(), StandardOpenOption.CREATE,
+					StandardOpenOption.READ, StandardOpenOption.WRITE); FileLock lock = tryLock(channel)) {
+				if (lock == null) {
+					// another download of the same file owns the partial download
+					if (status == HttpURLConnection.HTTP_PARTIAL) {
+						throw new IOException("Download of " + getURL() + " is already in progress elsewhere");
+					}
+					File download = this.cache.newDownloadFile(fileName);
+					logger.info("Downloading [" + getURL().toString() + "] to " + download.getAbsolutePath());
+					try {
+						transfer(body, download, http.getContentLengthLong(), digest);
+						verify(checksum, digest);
+						return this.cache.put(fileName, download, downloadValidators);
+					}
+					finally {
+						download.delete();
+					}
+				}
+				long position = 0;
+				if (status == HttpURLConnection.HTTP_PARTIAL) {
+					String contentRange = http.getHeaderField("Content-Range");
+					if (contentRange == null || !contentRange.startsWith("bytes " + offset + "-")) {
+						this.cache.discardPartialDownload(fileName);
+						throw new IOException("Unexpected Content-Range " + contentRange + " resuming download of " + getURL());
+					}
+					position = offset;
+					downloadValidators = this.cache.getMetadata(partial.getName());
+					if (digest != null) {
+						digest(channel, offset, digest);
+					}
+					logger.info("Resuming download of [" + getURL().toString() + "] at byte " + offset);
+				}
+				else {
+					this.cache.setMetadata(partial.getName(), downloadValidators);
+					logger.info("Downloading [" + getURL().toString() + "] to " + partial.getAbsolutePath());
+				}
+				channel.truncate(position);
+				long length = http.getContentLengthLong();
+				transfer(body, channel, position, length < 0 ? -1 : position + length, digest);
+				try {
+					verify(checksum, digest);
+				}
+				catch (IOException e) {
+					this.cache.discardPartialDownload(fileName);
+					throw e;
+				}
+			}
+			return this.cache.put(fileName, partial, downloadValidators);
+		}
+	}
+
+	/**
+	 * Lock a partial download, so that no two downloads write to it at once.
+	 * @return the lock, or {@code null} if another download holds it
+	 */
+	private static FileLock tryLock(FileChannel channel) throws IOException {
+		try {
+			return channel.tryLock();
+		}
+		catch (OverlappingFileLockException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Whether the file of a successful response can be downloaded in parts.
+	 */
+	private boolean isRangeable(URLConnection connection) {
+		return this.parallelDownloadParts > 1 && connection instanceof HttpURLConnection
+				&& "bytes".equalsIgnoreCase(connection.getHeaderField("Accept-Ranges"))
+				&& connection.getContentLengthLong() >= Math.max(this.parallelDownloadThreshold, this.parallelDownloadParts);
+	}
+
+	private void transfer(InputStream body, File download, long length, MessageDigest digest) throws IOException {
+		try (FileChannel target = FileChannel.open(download.toPath(), StandardOpenOption.WRITE)) {
+			transfer(body, target, 0, length, digest);
+		}
+	}
+
+	/**
+	 * Copy the body of a download into its file with {@link FileChannel#transferFrom}, in large
+	 * chunks. The body is a stream, so the channel wrapping it still reads into a heap buffer and
+	 * copies it before the file is written; this is not a zero-copy transfer.
+	 * @param length the expected length of the file, or -1 if unknown
+	 * @param digest the digest to update with the body as it is copied, or {@code null}
+	 */
+	private void transfer(InputStream body, FileChannel target, long position, long length, MessageDigest digest)
+			throws IOException {
+		InputStream is = digest != null ? new DigestInputStream(body, digest) : body;
+		try (ReadableByteChannel source = Channels.newChannel(is)) {
+			long count;
+			while ((count = target.transferFrom(source, position, TRANSFER_SIZE)) > 0) {
+				position += count;
+			}
+		}
+		if (length >= 0 && position != length) {
+			throw new IOException("Premature end of download of " + getURL() + " at byte " + position + " of " + length);
+		}
+	}
+
+	/**
+	 * Update a digest with the start of a partial download that is about to be resumed.
+	 */
+	private static void digest(FileChannel channel, long length, MessageDigest digest) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+		long position = 0;
+		while (position < length) {
+			// through Buffer, as ByteBuffer only overrides these methods from Java 9 on
+			((Buffer) buffer).clear();
+			((Buffer) buffer).limit((int) Math.min(buffer.capacity(), length - position));
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new EOFException("Partial download ends before byte " + length);
+			}
+			((Buffer) buffer).flip();
+			digest.update(buffer);
+			position += read;
+		}
+	}
+
+	/**
+	 * Return the checksum to verify the download against: the one given in the fragment of the
+	 * URL, or, if {@link #setVerifyChecksum(boolean) enabled}, the one published next to it.
+	 */
+	private Checksum getExpectedChecksum() throws IOException {
+		Checksum checksum = Checksum.fromFragment(getURL());
+		if (checksum == null && this.verifyChecksum) {
+			checksum = Checksum.fetch(getURL());
+			if (checksum == null) {
+				logger.warn("No checksum published for [" + getURL().toString() + "], it can not be verified");
+			}
+		}
+		return checksum;
+	}
+
+	private void verify(Checksum checksum, MessageDigest digest) throws IOException {
+		if (checksum != null) {
+			checksum.verify(digest, getURL());
+		}
+	}
+
+	private static String getValidator(Properties validators) {
+		return validators.getProperty(ETAG, validators.getProperty(LAST_MODIFIED));
+	}
+
+	private Properties getValidators(URLConnection connection) {
+		Properties validators = new Properties();
+		if (connection instanceof HttpURLConnection) {
+			String etag = connection.getHeaderField(ETAG);
+			if (etag != null) {
+				validators.setProperty(ETAG, etag);
+			}
+			String lastModified = connection.getHeaderField(LAST_MODIFIED);
+			if (lastModified != null) {
+				validators.setProperty(LAST_MODIFIED, lastModified);
+			}
+		}
+		return validators;
+	}
+
+	/**
+	 * An HTTP response with an error status.
+	 */
+	private static class HttpStatusException extends IOException {
+
+		private final int status;
+
+		HttpStatusException(int status, URL url) {
+			super("Server returned HTTP response code: " + status + " for URL: " + url);
+			this.status = status;
+		}
+
+	}
+
+	/**
+	 * Create a well formatted filename, no dashes, slashes, etc from the URL.
+	 */
+	private String getCacheFileName() {
+		String fileName = ShaUtils.sha1(getURL().toString());
+		try {
+			Path path = Paths.get(getURL().toURI().getPath());
+			return fileName + "-" + path.getFileName().toString().replaceAll("[^\\p{IsAlphabetic}^\\p{IsDigit}]", "");
+		}
+		catch (URISyntaxException | RuntimeException e) {
+			logger.info("Could not create simple name from last part of URL", e.getMessage());
+			return fileName;
 		}
-		return file;
 	}
 
 	@Override
-	public synchronized String getDescription() {
-		StringBuffer sb = new StringBuffer();
+	public String getDescription() {
+		File file = this.file;
+		StringBuilder sb = new StringBuilder();
 		sb.append("URL [" + getURL() + "]");
 		if (file != null) {
-			sb.append(", file [" + this.file.getAbsolutePath() + "]");
+			sb.append(", file [" + file.getAbsolutePath() + "]");
 		}
 		return sb.toString();
 	}
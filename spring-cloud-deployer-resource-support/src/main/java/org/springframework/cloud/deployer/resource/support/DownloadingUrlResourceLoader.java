@@ -16,21 +16,150 @@
 package org.springframework.cloud.deployer.resource.support;
 
 import java.net.MalformedURLException;
+import java.util.Map;
 
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
 
 /**
- * Resource loader that will return a {@link DownloadingUrlResource}
+ * Resource loader that will return a {@link DownloadingUrlResource}. Repeated lookups of a
+ * location return the same resource for as long as it is in use. As every caller shares that
+ * resource, it is configured through the loader and can not be reconfigured itself.
  *
  * @author Ilayaperumal Gopinathan
  */
 public class DownloadingUrlResourceLoader extends DefaultResourceLoader {
 
+	private final DownloadCache cache;
+
+	/**
+	 * Canonical resources by location, softly referenced so that unused resources can be
+	 * reclaimed. They are shared by all callers, so they can not be reconfigured.
+	 */
+	private final Map<String, DownloadingUrlResource> resources = new ConcurrentReferenceHashMap<>();
+
+	private int parallelDownloadParts = 1;
+
+	private long parallelDownloadThreshold = DownloadingUrlResource.DEFAULT_PARALLEL_DOWNLOAD_THRESHOLD;
+
+	private int downloadAttempts = DownloadingUrlResource.DEFAULT_DOWNLOAD_ATTEMPTS;
+
+	private long retryBackoff = DownloadingUrlResource.DEFAULT_RETRY_BACKOFF;
+
+	private boolean verifyChecksum;
+
+	private long revalidationInterval = DownloadingUrlResource.DEFAULT_REVALIDATION_INTERVAL;
+
+	/**
+	 * Create a loader whose resources download into the {@link DownloadCache#getDefault() default
+	 * cache}.
+	 */
+	public DownloadingUrlResourceLoader() {
+		this(DownloadCache.getDefault());
+	}
+
+	/**
+	 * Create a loader whose resources download into the given cache.
+	 *
+	 * @param cache the download cache
+	 */
+	public DownloadingUrlResourceLoader(DownloadCache cache) {
+		Assert.notNull(cache, "DownloadCache must not be null");
+		this.cache = cache;
+	}
+
+	/**
+	 * @return the cache resources of this loader download into
+	 */
+	public DownloadCache getDownloadCache() {
+		return this.cache;
+	}
+
+	/**
+	 * @param parallelDownloadParts the number of parts to download large files in at once
+	 * @see DownloadingUrlResource#setParallelDownloadParts(int)
+	 */
+	public void setParallelDownloadParts(int parallelDownloadParts) {
+		Assert.isTrue(parallelDownloadParts > 0, "parallelDownloadParts must be greater than 0");
+		this.parallelDownloadParts = parallelDownloadParts;
+		this.resources.clear();
+	}
+
+	/**
+	 * @param parallelDownloadThreshold the minimum size in bytes of files downloaded in parts
+	 * @see DownloadingUrlResource#setParallelDownloadThreshold(long)
+	 */
+	public void setParallelDownloadThreshold(long parallelDownloadThreshold) {
+		this.parallelDownloadThreshold = parallelDownloadThreshold;
+		this.resources.clear();
+	}
+
+	/**
+	 * @param downloadAttempts the number of attempts to download a file before giving up
+	 * @see DownloadingUrlResource#setDownloadAttempts(int)
+	 */
+	public void setDownloadAttempts(int downloadAttempts) {
+		Assert.isTrue(downloadAttempts > 0, "downloadAttempts must be greater than 0");
+		this.downloadAttempts = downloadAttempts;
+		this.resources.clear();
+	}
+
+	/**
+	 * @param retryBackoff the delay in milliseconds before retrying a failed download
+	 * @see DownloadingUrlResource#setRetryBackoff(long)
+	 */
+	public void setRetryBackoff(long retryBackoff) {
+		Assert.isTrue(retryBackoff >= 0, "retryBackoff must not be negative");
+		this.retryBackoff = retryBackoff;
+		this.resources.clear();
+	}
+
+	/**
+	 * @param verifyChecksum whether to verify downloads against the checksums published next to them
+	 * @see DownloadingUrlResource#setVerifyChecksum(boolean)
+	 */
+	public void setVerifyChecksum(boolean verifyChecksum) {
+		this.verifyChecksum = verifyChecksum;
+		this.resources.clear();
+	}
+
+	/**
+	 * @param revalidationInterval the time in milliseconds a resource serves its file without
+	 * revalidating it
+	 * @see DownloadingUrlResource#setRevalidationInterval(long)
+	 */
+	public void setRevalidationInterval(long revalidationInterval) {
+		Assert.isTrue(revalidationInterval >= 0, "revalidationInterval must not be negative");
+		this.revalidationInterval = revalidationInterval;
+		this.resources.clear();
+	}
+
 	@Override
 	public Resource getResource(String location) {
+		DownloadingUrlResource resource = this.resources.get(location);
+		if (resource == null) {
+			resource = createResource(location);
+			DownloadingUrlResource existing = this.resources.putIfAbsent(location, resource);
+			if (existing != null) {
+				resource = existing;
+			}
+		}
+		return resource;
+	}
+
+	private DownloadingUrlResource createResource(String location) {
 		try {
-			return new DownloadingUrlResource(location);
+			DownloadingUrlResource resource = new DownloadingUrlResource(location, this.cache);
+			resource.setParallelDownloadParts(this.parallelDownloadParts);
+			resource.setParallelDownloadThreshold(this.parallelDownloadThreshold);
+			resource.setDownloadAttempts(this.downloadAttempts);
+			resource.setRetryBackoff(this.retryBackoff);
+			resource.setVerifyChecksum(this.verifyChecksum);
+			resource.setRevalidationInterval(this.revalidationInterval);
+			resource.share();
+			return resource;
 		}
 		catch (MalformedURLException e) {
 			throw new IllegalStateException(e);
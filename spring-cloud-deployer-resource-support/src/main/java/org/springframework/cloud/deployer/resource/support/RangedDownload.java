@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * Downloads a file over HTTP in several parts at once, each with its own range request, writing
+ * every part straight to its position in a preallocated file.
+ * <p>
+ * The first part is read from the response that revealed the server accepts ranges, the others
+ * are requested with an {@code If-Range} validator, when one is known, so that a file that changes
+ * during the download fails it rather than mixing two versions.
+ */
+class RangedDownload {
+
+	private final URL url;
+
+	private final long length;
+
+	private final String validator;
+
+	private final int parts;
+
+	private final Queue<HttpURLConnection> connections = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Create a new download.
+	 *
+	 * @param url the URL of the file
+	 * @param length the length of the file in bytes
+	 * @param validator the {@code ETag} or {@code Last-Modified} value of the file, or {@code null}
+	 * @param parts the number of parts to download at once
+	 */
+	RangedDownload(URL url, long length, String validator, int parts) {
+		this.url = url;
+		this.length = length;
+		this.validator = validator;
+		this.parts = parts;
+	}
+
+	/**
+	 * Download the file.
+	 *
+	 * @param firstPart the body of the full response, of which only the first part is read
+	 * @param file the file to download into
+	 * @throws IOException if any of the parts fails to download
+	 */
+	void download(InputStream firstPart, File file) throws IOException {
+		long partLength = (this.length + this.parts - 1) / this.parts;
+		ExecutorService executor = Executors.newFixedThreadPool(this.parts - 1,
+				new CustomizableThreadFactory("ranged-download-"));
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.setLength(this.length);
+			FileChannel channel = randomAccessFile.getChannel();
+			List<Future<?>> futures = new ArrayList<>();
+			for (long start = partLength; start < this.length; start += partLength) {
+				long position = start;
+				long count = Math.min(partLength, this.length - start);
+				futures.add(executor.submit(() -> {
+					downloadPart(channel, position, count);
+					return null;
+				}));
+			}
+			try (InputStream is = firstPart) {
+				transfer(is, channel, 0, Math.min(partLength, this.length));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+		catch (ExecutionException e) {
+			throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while downloading " + this.url, e);
+		}
+		finally {
+			executor.shutdownNow();
+			// aborts the parts still in progress if one of them failed
+			for (HttpURLConnection connection : this.connections) {
+				connection.disconnect();
+			}
+		}
+	}
+
+	private void downloadPart(FileChannel channel, long position, long count) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) this.url.openConnection();
+		this.connections.add(connection);
+		ResourceUtils.useCachesIfNecessary(connection);
+		connection.setRequestProperty("Range", "bytes=" + position + "-" + (position + count - 1));
+		if (this.validator != null) {
+			connection.setRequestProperty("If-Range", this.validator);
+		}
+		if (connection.getResponseCode() != HttpURLConnection.HTTP_PARTIAL) {
+			throw new IOException("Server did not honour the range request for part " + position + "-"
+					+ (position + count - 1) + " of " + this.url + ", got status " + connection.getResponseCode());
+		}
+		try (InputStream is = connection.getInputStream()) {
+			transfer(is, channel, position, count);
+		}
+	}
+
+	private void transfer(InputStream is, FileChannel channel, long position, long count) throws IOException {
+		ReadableByteChannel source = Channels.newChannel(is);
+		long transferred = 0;
+		while (transferred < count) {
+			long n = channel.transferFrom(source, position + transferred, count - transferred);
+			if (n <= 0) {
+				throw new IOException("Premature end of part " + position + "-" + (position + count - 1)
+						+ " of " + this.url);
+			}
+			transferred += n;
+		}
+	}
+
+}
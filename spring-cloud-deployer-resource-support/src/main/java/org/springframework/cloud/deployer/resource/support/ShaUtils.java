@@ -16,18 +16,31 @@
 
 package org.springframework.cloud.deployer.resource.support;
 
-import java.io.UnsupportedEncodingException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 /**
- * Simple sha utils.
+ * Simple sha utils. Digests are kept per thread, as they are expensive to look up and not thread
+ * safe.
  *
  * @author Janne Valkealahti
  */
 public abstract class ShaUtils {
 
-	private static final char[] CHARS = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f' };
+	private static final byte[] CHARS = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f' };
+
+	private static final ThreadLocal<MessageDigest> SHA1 = ThreadLocal.withInitial(() -> newDigest("SHA-1"));
+
+	private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> newDigest("SHA-256"));
+
+	private static final int FILE_BUFFER_SIZE = 64 * 1024;
 
 	/**
 	 * Creates a sha1 out from a given data.
@@ -36,30 +49,83 @@ public abstract class ShaUtils {
 	 * @return the sha1 for data
 	 */
 	protected static String sha1(String data) {
+		return digest(SHA1.get(), data);
+	}
+
+	/**
+	 * Creates a sha256 out from a given data.
+	 *
+	 * @param data the data
+	 * @return the sha256 for data
+	 */
+	protected static String sha256(String data) {
+		return digest(SHA256.get(), data);
+	}
+
+	/**
+	 * Creates a sha1 out from the contents of a given file, read in chunks.
+	 *
+	 * @param file the file
+	 * @return the sha1 for the file
+	 * @throws IOException if the file could not be read
+	 */
+	protected static String sha1(File file) throws IOException {
+		return digest(SHA1.get(), file);
+	}
+
+	/**
+	 * Creates a sha256 out from the contents of a given file, read in chunks.
+	 *
+	 * @param file the file
+	 * @return the sha256 for the file
+	 * @throws IOException if the file could not be read
+	 */
+	protected static String sha256(File file) throws IOException {
+		return digest(SHA256.get(), file);
+	}
+
+	private static String digest(MessageDigest digest, String data) {
+		digest.reset();
+		return encodeHex(digest.digest(data.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static String digest(MessageDigest digest, File file) throws IOException {
+		digest.reset();
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(FILE_BUFFER_SIZE);
+			while (channel.read(buffer) >= 0) {
+				// through Buffer, as ByteBuffer only overrides these methods from Java 9 on
+				((Buffer) buffer).flip();
+				digest.update(buffer);
+				((Buffer) buffer).clear();
+			}
+		}
+		return encodeHex(digest.digest());
+	}
+
+	private static MessageDigest newDigest(String algorithm) {
 		try {
-			return new String(encodeHex(MessageDigest.getInstance("SHA-1").digest(data.getBytes("UTF-8"))));
+			return MessageDigest.getInstance(algorithm);
 		}
 		catch (NoSuchAlgorithmException e) {
 			throw new IllegalStateException(e);
 		}
-		catch (UnsupportedEncodingException e) {
-			throw new IllegalStateException(e);
-		}
 	}
 
 	/**
-	 * Encode given data as lower case hex chars.
+	 * Encode given data as lower case hex chars. The chars are encoded as single bytes, which
+	 * strings take over without widening them to chars first.
 	 *
 	 * @param data the data
-	 * @return the endoced chars
+	 * @return the encoded string
 	 */
-	private static char[] encodeHex(final byte[] data) {
+	static String encodeHex(final byte[] data) {
 		final int len = data.length;
-		final char[] out = new char[len << 1];
+		final byte[] out = new byte[len << 1];
 		for (int i = 0, j = 0; i < len; i++) {
 			out[j++] = CHARS[(0xF0 & data[i]) >>> 4];
 			out[j++] = CHARS[0x0F & data[i]];
 		}
-		return out;
+		return new String(out, StandardCharsets.ISO_8859_1);
 	}
 }
@@ -19,20 +19,34 @@ package org.springframework.cloud.deployer.resource.registry;
 import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
 import org.springframework.cloud.deployer.resource.StubResourceLoader;
 import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.DescriptiveResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
 
 /**
  * @author Patrick Peralta
@@ -118,6 +132,201 @@ public class UriRegistryPopulatorTests {
 		assertThat(registry.find("test").toString(), is("file:///bar-1.2.3.jar"));
 	}
 
+	@Test
+	public void populateRegistryFromSeveralFilesConcurrently() throws Exception {
+		Properties first = new Properties();
+		first.setProperty("foo", "maven://first:foo:1.0.0");
+		first.setProperty("bar", "maven://first:bar:1.0.0");
+		Properties second = new Properties();
+		second.setProperty("foo", "maven://second:foo:1.0.0");
+		// each file is only served once both are being read
+		CountDownLatch reading = new CountDownLatch(2);
+		Map<String, Resource> resources = new HashMap<>();
+		resources.put("local://first", new ConcurrentPropertiesResource(first, reading));
+		resources.put("local://second", new ConcurrentPropertiesResource(second, reading));
+		UriRegistryPopulator populator = new UriRegistryPopulator();
+		populator.setResourceLoader(new DefaultResourceLoader() {
+
+			@Override
+			public Resource getResource(String location) {
+				return resources.get(location);
+			}
+		});
+		UriRegistry registry = new InMemoryUriRegistry();
+		populator.populateRegistry(true, registry, "local://first", "local://second");
+		assertThat(registry.find("foo").toString(), is("maven://second:foo:1.0.0"));
+		assertThat(registry.find("bar").toString(), is("maven://first:bar:1.0.0"));
+		registry = new InMemoryUriRegistry();
+		populator.populateRegistry(false, registry, "local://first", "local://second");
+		assertThat(registry.find("foo").toString(), is("maven://first:foo:1.0.0"));
+	}
+
+	@Test
+	public void failedFileCancelsRemainingLoads() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		Map<String, Resource> resources = new HashMap<>();
+		resources.put("local://failing", new PropertiesResource(new Properties()) {
+
+			@Override
+			public InputStream getInputStream() throws IOException {
+				try {
+					// fails once the other file is being read, so that there is a load to cancel
+					started.await(10, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					throw new IOException(e);
+				}
+				throw new IOException("failing");
+			}
+		});
+		resources.put("local://hanging", new PropertiesResource(new Properties()) {
+
+			@Override
+			public InputStream getInputStream() throws IOException {
+				started.countDown();
+				try {
+					new CountDownLatch(1).await();
+				}
+				catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+				throw new IOException("cancelled");
+			}
+		});
+		UriRegistryPopulator populator = new UriRegistryPopulator();
+		populator.setResourceLoader(new DefaultResourceLoader() {
+
+			@Override
+			public Resource getResource(String location) {
+				return resources.get(location);
+			}
+		});
+		try {
+			populator.populateRegistry(true, new InMemoryUriRegistry(), "local://failing", "local://hanging");
+			fail("expected RuntimeException");
+		}
+		catch (RuntimeException e) {
+			assertThat(e.getCause().getMessage(), is("failing"));
+		}
+		assertTrue(interrupted.await(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void prefetchRegisteredArtifacts() throws Exception {
+		PrefetchingResourceLoader resourceLoader = new PrefetchingResourceLoader(new PropertiesResource(uris));
+		UriRegistryPopulator populator = new UriRegistryPopulator();
+		populator.setResourceLoader(resourceLoader);
+		populator.setPrefetch(true);
+		populator.setPrefetchParallelism(2);
+		List<String> progress = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch prefetched = new CountDownLatch(2);
+		populator.setPrefetchListener((uri, failure, completed, total) -> {
+			progress.add(uri + " " + (failure == null) + " " + total);
+			prefetched.countDown();
+		});
+		populator.populateRegistry(true, new InMemoryUriRegistry(), "local://local");
+		assertTrue(prefetched.await(10, TimeUnit.SECONDS));
+		// the file URI is not prefetched by default
+		assertThat(new HashSet<>(resourceLoader.resolved), is(new HashSet<>(Arrays.asList(
+				"maven://group1:foo:jar:classifier1:1.0.1", "maven://group2:foo:2.1.7"))));
+		assertThat(new HashSet<>(progress), is(new HashSet<>(Arrays.asList(
+				"maven://group1:foo:jar:classifier1:1.0.1 true 2", "maven://group2:foo:2.1.7 true 2"))));
+	}
+
+	@Test
+	public void prefetchFailuresAreReported() throws Exception {
+		PrefetchingResourceLoader resourceLoader = new PrefetchingResourceLoader(new PropertiesResource(uris));
+		UriRegistryPopulator populator = new UriRegistryPopulator();
+		populator.setResourceLoader(resourceLoader);
+		populator.setPrefetchFilter(uri -> true);
+		List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+		populator.setPrefetchListener((uri, failure, completed, total) -> {
+			if (failure != null) {
+				failures.add(failure);
+			}
+		});
+		populator.prefetch(Arrays.asList(new URI("file:///bar-1.2.3.jar"), new URI("maven://group2:foo:2.1.7"),
+				new URI("maven://missing:foo:1.0.0"))).get(10, TimeUnit.SECONDS);
+		assertThat(resourceLoader.resolved.size(), is(2));
+		assertThat(failures.size(), is(1));
+		assertThat(failures.get(0).getMessage(), is("maven://missing:foo:1.0.0"));
+	}
+
+	@Test
+	public void failingPrefetchListenerDoesNotFailPrefetch() throws Exception {
+		PrefetchingResourceLoader resourceLoader = new PrefetchingResourceLoader(new PropertiesResource(uris));
+		UriRegistryPopulator populator = new UriRegistryPopulator();
+		populator.setResourceLoader(resourceLoader);
+		populator.setPrefetchFilter(uri -> true);
+		populator.setPrefetchListener((uri, failure, completed, total) -> {
+			throw new IllegalStateException("listener failure");
+		});
+		populator.prefetch(Arrays.asList(new URI("file:///bar-1.2.3.jar"), new URI("maven://group2:foo:2.1.7")))
+				.get(10, TimeUnit.SECONDS);
+		assertThat(resourceLoader.resolved.size(), is(2));
+	}
+
+	/**
+	 * {@link ResourceLoader} that returns the registry properties for {@code local://local} and a
+	 * resource recording its resolution for any other location.
+	 */
+	static class PrefetchingResourceLoader extends StubResourceLoader {
+
+		private final List<String> resolved = Collections.synchronizedList(new ArrayList<>());
+
+		PrefetchingResourceLoader(Resource properties) {
+			super(properties);
+		}
+
+		@Override
+		public Resource getResource(String location) {
+			if (location.equals("local://local")) {
+				return super.getResource(location);
+			}
+			return new DescriptiveResource(location) {
+
+				@Override
+				public File getFile() throws IOException {
+					if (location.contains("missing")) {
+						throw new FileNotFoundException(location);
+					}
+					resolved.add(location);
+					return new File(location);
+				}
+			};
+		}
+
+	}
+
+	/**
+	 * {@link PropertiesResource} that waits for a number of resources to be read at the same time
+	 * before it can be read.
+	 */
+	static class ConcurrentPropertiesResource extends PropertiesResource {
+
+		private final CountDownLatch reading;
+
+		ConcurrentPropertiesResource(Properties properties, CountDownLatch reading) {
+			super(properties);
+			this.reading = reading;
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			this.reading.countDown();
+			try {
+				if (!this.reading.await(10, TimeUnit.SECONDS)) {
+					throw new IOException("Resources were not read concurrently");
+				}
+			}
+			catch (InterruptedException e) {
+				throw new IOException(e);
+			}
+			return super.getInputStream();
+		}
+
+	}
 
 	/**
 	 * {@link Resource} implementation that returns an {@link InputStream}
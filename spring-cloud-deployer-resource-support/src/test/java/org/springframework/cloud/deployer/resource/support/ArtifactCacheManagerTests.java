@@ -0,0 +1,154 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.support;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.cloud.deployer.resource.support.ArtifactCacheManager.EvictionPolicy;
+import org.springframework.core.io.FileSystemResource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ArtifactCacheManager}.
+ */
+public class ArtifactCacheManagerTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void leastRecentlyUsedFilesAreEvicted() throws IOException {
+		ArtifactCacheManager manager = new ArtifactCacheManager(25, EvictionPolicy.LEAST_RECENTLY_USED);
+		File one = access(manager, "one", 10);
+		manager.accessed(one);
+		File two = access(manager, "two", 10);
+		manager.accessed(one);
+		File three = access(manager, "three", 10);
+		assertTrue(one.exists());
+		assertFalse(two.exists());
+		assertTrue(three.exists());
+		assertEquals(20, manager.getSize());
+		assertEquals(1, manager.getEvictionCount());
+	}
+
+	@Test
+	public void leastFrequentlyUsedFilesAreEvicted() throws IOException {
+		ArtifactCacheManager manager = new ArtifactCacheManager(25, EvictionPolicy.LEAST_FREQUENTLY_USED);
+		File one = access(manager, "one", 10);
+		manager.accessed(one);
+		File two = access(manager, "two", 10);
+		File three = access(manager, "three", 10);
+		assertTrue(one.exists());
+		assertFalse(two.exists());
+		assertTrue(three.exists());
+	}
+
+	@Test
+	public void retainedFilesAreNotEvicted() throws IOException {
+		List<File> evicted = new ArrayList<>();
+		ArtifactCacheManager manager = new ArtifactCacheManager(15, EvictionPolicy.LEAST_RECENTLY_USED);
+		manager.addEvictionListener(evicted::add);
+		File one = access(manager, "one", 10);
+		manager.retain(one);
+		File two = access(manager, "two", 10);
+		assertTrue(one.exists());
+		assertTrue(two.exists());
+		assertEquals(20, manager.getSize());
+		manager.release(one);
+		assertFalse(one.exists());
+		assertTrue(two.exists());
+		assertEquals(Arrays.asList(one), evicted);
+	}
+
+	@Test
+	public void resourceFileIsRetained() throws IOException {
+		ArtifactCacheManager manager = new ArtifactCacheManager(15, EvictionPolicy.LEAST_RECENTLY_USED);
+		File one = write(new File(this.folder.getRoot(), "one"), 10);
+		assertEquals(one, manager.retain(new FileSystemResource(one)));
+		access(manager, "two", 10);
+		assertTrue(one.exists());
+	}
+
+	@Test
+	public void evictedFileIsNotRetained() throws IOException {
+		ArtifactCacheManager manager = new ArtifactCacheManager(15, EvictionPolicy.LEAST_RECENTLY_USED);
+		File one = access(manager, "one", 10);
+		access(manager, "two", 10);
+		assertFalse(manager.retain(one));
+	}
+
+	@Test(expected = FileNotFoundException.class)
+	public void missingResourceFileIsNotRetained() throws IOException {
+		ArtifactCacheManager manager = new ArtifactCacheManager(15, EvictionPolicy.LEAST_RECENTLY_USED);
+		manager.retain(new FileSystemResource(new File(this.folder.getRoot(), "missing")));
+	}
+
+	@Test
+	public void existingFilesAreTracked() throws IOException {
+		File directory = this.folder.newFolder("repository");
+		File old = write(new File(directory, "foo/old.jar"), 10);
+		old.setLastModified(System.currentTimeMillis() - 60000);
+		File recent = write(new File(directory, "bar/recent.jar"), 10);
+		File pom = write(new File(directory, "bar/recent.pom"), 10);
+		ArtifactCacheManager manager = new ArtifactCacheManager(25, EvictionPolicy.LEAST_RECENTLY_USED);
+		manager.track(directory, file -> file.getName().endsWith(".jar"));
+		assertEquals(20, manager.getSize());
+		access(manager, "new.jar", 10);
+		assertFalse(old.exists());
+		assertTrue(recent.exists());
+		assertTrue(pom.exists());
+	}
+
+	@Test
+	public void filesDeletedElsewhereStopCounting() throws IOException {
+		ArtifactCacheManager manager = new ArtifactCacheManager(25, EvictionPolicy.LEAST_RECENTLY_USED);
+		File one = access(manager, "one", 10);
+		File two = access(manager, "two", 10);
+		assertTrue(one.delete());
+		File three = access(manager, "three", 10);
+		assertTrue(two.exists());
+		assertTrue(three.exists());
+		assertEquals(20, manager.getSize());
+		assertEquals(0, manager.getEvictionCount());
+	}
+
+	private File access(ArtifactCacheManager manager, String name, int size) throws IOException {
+		File file = write(new File(this.folder.getRoot(), name), size);
+		manager.accessed(file);
+		return file;
+	}
+
+	private File write(File file, int size) throws IOException {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), new byte[size]);
+		return file;
+	}
+
+}
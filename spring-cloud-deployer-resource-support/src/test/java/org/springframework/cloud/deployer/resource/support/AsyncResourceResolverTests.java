@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.support;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.core.io.AbstractResource;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link AsyncResourceResolver}.
+ */
+public class AsyncResourceResolverTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@Test
+	public void locationIsResolved() throws Exception {
+		File file = this.folder.newFile("app.jar");
+		AsyncResourceResolver resolver = new AsyncResourceResolver(new DelegatingResourceLoader());
+		assertEquals(file.getCanonicalFile(),
+				resolver.resolve(file.toURI().toString()).get(10, TimeUnit.SECONDS).getCanonicalFile());
+	}
+
+	@Test
+	public void failuresCompleteTheFuture() throws Exception {
+		AsyncResourceResolver resolver = new AsyncResourceResolver(new DelegatingResourceLoader());
+		assertFailure(resolver.resolve("no scheme"), ResourceNotResolvedException.class);
+		assertFailure(resolver.resolve("classpath:missing.jar"), FileNotFoundException.class);
+	}
+
+	@Test
+	public void concurrentResolutionsAreShared() throws Exception {
+		AsyncResourceResolver resolver = new AsyncResourceResolver(new DelegatingResourceLoader());
+		BlockingResource resource = new BlockingResource("app");
+		CompletableFuture<File> first = resolver.resolve(resource);
+		CompletableFuture<File> second = resolver.resolve(new BlockingResource("app"));
+		this.release.countDown();
+		assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+		assertEquals(1, resource.resolutions.get());
+	}
+
+	@Test
+	public void callersOfSharedResolutionsDoNotAffectEachOther() throws Exception {
+		AsyncResourceResolver resolver = new AsyncResourceResolver(new DelegatingResourceLoader());
+		BlockingResource resource = new BlockingResource("app");
+		CompletableFuture<File> first = resolver.resolve(resource);
+		CompletableFuture<File> second = resolver.resolve(resource);
+		first.cancel(true);
+		second.obtrudeValue(new File("other"));
+		CompletableFuture<File> third = resolver.resolve(resource);
+		this.release.countDown();
+		assertEquals("app", third.get(10, TimeUnit.SECONDS).getName());
+		assertEquals(1, resource.resolutions.get());
+	}
+
+	@Test
+	public void resolutionsBeyondTheQueueAreRejected() throws Exception {
+		AsyncResourceResolver resolver = new AsyncResourceResolver(new DelegatingResourceLoader(), 1, 1);
+		CompletableFuture<File> running = resolver.resolve(new BlockingResource("one"));
+		CompletableFuture<File> queued = resolver.resolve(new BlockingResource("two"));
+		assertFailure(resolver.resolve(new BlockingResource("three")), RejectedExecutionException.class);
+		this.release.countDown();
+		running.get(10, TimeUnit.SECONDS);
+		queued.get(10, TimeUnit.SECONDS);
+		assertEquals("three", resolver.resolve(new BlockingResource("three")).get(10, TimeUnit.SECONDS).getName());
+	}
+
+	private void assertFailure(CompletableFuture<File> future, Class<? extends Throwable> type) throws Exception {
+		try {
+			future.get(10, TimeUnit.SECONDS);
+			fail("Expected " + type.getName());
+		}
+		catch (ExecutionException e) {
+			assertThat(e.getCause(), instanceOf(type));
+		}
+	}
+
+	private class BlockingResource extends AbstractResource {
+
+		private final String name;
+
+		private final AtomicInteger resolutions = new AtomicInteger();
+
+		BlockingResource(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String getDescription() {
+			return this.name;
+		}
+
+		@Override
+		public File getFile() throws IOException {
+			this.resolutions.incrementAndGet();
+			try {
+				AsyncResourceResolverTests.this.release.await();
+			}
+			catch (InterruptedException e) {
+				throw new IOException(e);
+			}
+			return new File(this.name);
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			throw new FileNotFoundException(this.name);
+		}
+
+	}
+
+}
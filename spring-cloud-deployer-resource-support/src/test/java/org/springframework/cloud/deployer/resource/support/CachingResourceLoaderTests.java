@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.support;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import org.springframework.core.io.DescriptiveResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests for {@link CachingResourceLoader}.
+ */
+public class CachingResourceLoaderTests {
+
+	private final CountingResourceLoader delegate = new CountingResourceLoader();
+
+	@Test
+	public void resourcesAreCached() {
+		CachingResourceLoader loader = new CachingResourceLoader(this.delegate, 10, null);
+		Resource resource = loader.getResource("maven://foo:bar:1.0.0");
+		assertSame(resource, loader.getResource("maven://foo:bar:1.0.0"));
+		assertNotSame(resource, loader.getResource("maven://foo:bar:2.0.0"));
+		assertEquals(2, this.delegate.lookups.get());
+	}
+
+	@Test
+	public void leastRecentlyUsedResourcesAreEvicted() {
+		CachingResourceLoader loader = new CachingResourceLoader(this.delegate, 2, null);
+		Resource one = loader.getResource("one:one");
+		Resource two = loader.getResource("two:two");
+		// marks one as recently used
+		loader.getResource("one:one");
+		loader.getResource("three:three");
+		assertEquals(2, loader.size());
+		assertSame(one, loader.getResource("one:one"));
+		assertNotSame(two, loader.getResource("two:two"));
+		assertEquals(4, this.delegate.lookups.get());
+	}
+
+	@Test
+	public void expiredResourcesAreLookedUpAgain() {
+		CachingResourceLoader loader = new CachingResourceLoader(this.delegate, 10, Duration.ZERO);
+		Resource resource = loader.getResource("maven://foo:bar:1.0.0");
+		assertNotSame(resource, loader.getResource("maven://foo:bar:1.0.0"));
+		assertEquals(2, this.delegate.lookups.get());
+	}
+
+	private static class CountingResourceLoader implements ResourceLoader {
+
+		private final AtomicInteger lookups = new AtomicInteger();
+
+		@Override
+		public Resource getResource(String location) {
+			this.lookups.incrementAndGet();
+			return new DescriptiveResource(location);
+		}
+
+		@Override
+		public ClassLoader getClassLoader() {
+			return null;
+		}
+
+	}
+
+}
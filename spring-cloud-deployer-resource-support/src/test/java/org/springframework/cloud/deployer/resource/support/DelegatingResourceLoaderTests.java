@@ -19,6 +19,7 @@ package org.springframework.cloud.deployer.resource.support;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -28,10 +29,16 @@ import org.junit.rules.TemporaryFolder;
 
 import org.springframework.cloud.deployer.resource.StubResourceLoader;
 import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 /**
  * Tests for {@link DelegatingResourceLoader}.
@@ -65,6 +72,48 @@ public class DelegatingResourceLoaderTests {
 		assertEquals(three, resourceLoader.getResource("three://three"));
 	}
 
+	@Test
+	public void schemesAreCaseInsensitive() {
+		NullResource one = new NullResource("one");
+		DelegatingResourceLoader resourceLoader = new DelegatingResourceLoader(
+				Collections.singletonMap("One", new StubResourceLoader(one)));
+		assertEquals(one, resourceLoader.getResource("one://one"));
+		assertEquals(one, resourceLoader.getResource("ONE://one"));
+		assertThat(resourceLoader.getResource("HTTP://localhost/repo/foo-1.0.0.jar"),
+				instanceOf(DownloadingUrlResource.class));
+	}
+
+	@Test
+	public void schemeIsRequired() {
+		DelegatingResourceLoader resourceLoader = new DelegatingResourceLoader();
+		for (String location : new String[] { "", "one", "/one:two", "1one:two", "o ne:two" }) {
+			try {
+				resourceLoader.getResource(location);
+				fail("Expected ResourceNotResolvedException for " + location);
+			}
+			catch (ResourceNotResolvedException e) {
+				assertEquals("a scheme (prefix) is required", e.getMessage());
+			}
+		}
+	}
+
+	@Test
+	public void schemeLength() {
+		assertEquals(5, DelegatingResourceLoader.schemeLength("maven://foo:bar:1.0.0"));
+		assertEquals(4, DelegatingResourceLoader.schemeLength("file:/opt/apps/app.jar"));
+		assertEquals(7, DelegatingResourceLoader.schemeLength("git+ssh://host/repo"));
+		assertEquals(-1, DelegatingResourceLoader.schemeLength(":foo"));
+	}
+
+	@Test
+	public void httpResourcesAreShared() {
+		DelegatingResourceLoader resourceLoader = new DelegatingResourceLoader();
+		Resource resource = resourceLoader.getResource("http://localhost/repo/foo-1.0.0.jar");
+		assertThat(resource, instanceOf(DownloadingUrlResource.class));
+		assertSame(resource, resourceLoader.getResource("http://localhost/repo/foo-1.0.0.jar"));
+		assertNotSame(resource, resourceLoader.getResource("https://localhost/repo/foo-1.0.0.jar"));
+	}
+
 	static class NullResource extends AbstractResource {
 
 		final String description;
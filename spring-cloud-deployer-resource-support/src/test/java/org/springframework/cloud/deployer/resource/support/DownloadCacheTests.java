@@ -0,0 +1,192 @@
+/*
+ * Copyright 2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.deployer.resource.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Tests for {@link DownloadCache}.
+ */
+public class DownloadCacheTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void hitsAndMisses() throws IOException {
+		DownloadCache cache = new DownloadCache(this.folder.getRoot());
+		assertNull(cache.get("one"));
+		File file = cache.put("one", download(cache, "one", 10));
+		assertEquals(new File(this.folder.getRoot(), "one"), file);
+		assertEquals(file, cache.get("one"));
+		assertEquals(file, new DownloadCache(this.folder.getRoot()).get("one"));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void cacheIsUnboundedByDefault() throws IOException {
+		DownloadCache cache = new DownloadCache(this.folder.getRoot());
+		File one = cache.put("one", download(cache, "one", 10));
+		assertNull(cache.getCacheManager());
+		assertEquals(Long.MAX_VALUE, cache.getMaxSize());
+		assertNotNull(cache.get("one"));
+		assertTrue(one.exists());
+	}
+
+	@Test
+	public void leastRecentlyUsedFilesAreEvicted() throws IOException {
+		DownloadCache cache = new DownloadCache(this.folder.getRoot(), 25);
+		File one = cache.put("one", download(cache, "one", 10));
+		File two = cache.put("two", download(cache, "two", 10));
+		one.setLastModified(System.currentTimeMillis() - 20000);
+		two.setLastModified(System.currentTimeMillis() - 30000);
+		// marks one as recently used
+		assertNotNull(cache.get("one"));
+		File three = cache.put("three", download(cache, "three", 10));
+		assertTrue(one.exists());
+		assertFalse(two.exists());
+		assertTrue(three.exists());
+		assertEquals(1, cache.getEvictionCount());
+	}
+
+	@Test
+	public void downloadsInProgressAreNeitherServedNorEvicted() throws IOException {
+		DownloadCache cache = new DownloadCache(this.folder.getRoot(), 5);
+		File inProgress = download(cache, "one", 10);
+		assertNull(cache.get("one"));
+		cache.put("two", download(cache, "two", 1));
+		assertTrue(inProgress.exists());
+	}
+
+	@Test
+	public void metadataIsNotKeptForFailedPut() throws IOException {
+		DownloadCache cache = new DownloadCache(this.folder.getRoot());
+		Properties metadata = new Properties();
+		metadata.setProperty("etag", "\"1\"");
+		cache.put("one", download(cache, "one", 10), metadata);
+		File missing = new File(this.folder.getRoot(), "missing.download");
+		try {
+			cache.put("one", missing, metadata);
+			fail("expected IOException");
+		}
+		catch (IOException e) {
+			// expected
+		}
+		assertTrue(cache.getMetadata("one").isEmpty());
+	}
+
+	@Test
+	public void directoryIsCreatedAccessibleToItsOwnerOnly() throws IOException {
+		assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+		File directory = new File(this.folder.getRoot(), "cache");
+		new DownloadCache(directory).get("one");
+		assertEquals(PosixFilePermissions.fromString("rwx------"),
+				Files.getPosixFilePermissions(directory.toPath()));
+	}
+
+	@Test
+	public void directoryWritableByOthersIsRefused() throws IOException {
+		assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+		File directory = this.folder.newFolder("cache");
+		Files.setPosixFilePermissions(directory.toPath(), PosixFilePermissions.fromString("rwxrwxrwx"));
+		Files.write(new File(directory, "one").toPath(), new byte[10]);
+		try {
+			new DownloadCache(directory).get("one");
+			fail("expected IOException");
+		}
+		catch (IOException e) {
+			assertTrue(e.getMessage().contains("writable by others"));
+		}
+	}
+
+	@Test
+	public void cachesInTheSameDirectoryShareTheirManager() throws IOException {
+		DownloadCache managed = new DownloadCache(this.folder.getRoot(), 25);
+		DownloadCache cache = new DownloadCache(new File(this.folder.getRoot(), "."));
+		assertSame(managed.getCacheManager(), cache.getCacheManager());
+		File one = cache.put("one", download(cache, "one", 10));
+		cache.put("two", download(cache, "two", 10));
+		cache.put("three", download(cache, "three", 10));
+		assertFalse(one.exists());
+		assertEquals(1, managed.getEvictionCount());
+	}
+
+	@Test
+	public void cachesInTheSameDirectoryShareDownloadsInProgress() throws Exception {
+		DownloadCache first = new DownloadCache(this.folder.getRoot());
+		DownloadCache second = new DownloadCache(new File(this.folder.getRoot(), "."));
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<File> file1 = executor.submit(() -> first.download("one", () -> {
+				started.countDown();
+				try {
+					release.await();
+				}
+				catch (InterruptedException e) {
+					throw new InterruptedIOException();
+				}
+				return first.put("one", download(first, "one", 10));
+			}));
+			started.await();
+			Future<File> file2 = executor.submit(() -> second.download("one", () -> {
+				throw new IOException("Downloaded twice");
+			}));
+			Thread.sleep(100);
+			assertFalse(file2.isDone());
+			release.countDown();
+			assertEquals(file1.get(), file2.get());
+			assertEquals(1, second.getHitCount());
+		}
+		finally {
+			release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	private File download(DownloadCache cache, String name, int size) throws IOException {
+		File download = cache.newDownloadFile(name);
+		Files.write(download.toPath(), new byte[size]);
+		return download;
+	}
+
+}
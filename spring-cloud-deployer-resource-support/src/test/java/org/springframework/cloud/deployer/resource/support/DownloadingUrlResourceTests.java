@@ -15,19 +15,166 @@
  */
 package org.springframework.cloud.deployer.resource.support;
 
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.springframework.core.io.Resource;
+
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 /**
  * @author Mark Pollack
  */
 public class DownloadingUrlResourceTests {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final AtomicInteger requests = new AtomicInteger();
+
+	private final AtomicInteger notModified = new AtomicInteger();
+
+	private final AtomicInteger rangeRequests = new AtomicInteger();
+
+	private volatile byte[] content = bytes("foo");
+
+	private volatile boolean acceptRanges;
+
+	private volatile String etag;
+
+	private volatile String lastModified;
+
+	private volatile int status = 200;
+
+	private final AtomicInteger truncatedResponses = new AtomicInteger();
+
+	private final List<String> ranges = new CopyOnWriteArrayList<>();
+
+	private volatile CountDownLatch release = new CountDownLatch(0);
+
+	private final Map<String, String> checksums = new ConcurrentHashMap<>();
+
+	private HttpServer server;
+
+	private String url;
+
+	@Before
+	public void startServer() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/repo", exchange -> {
+			this.requests.incrementAndGet();
+			try {
+				this.release.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			String path = exchange.getRequestURI().getPath();
+			if (path.endsWith(".sha256") || path.endsWith(".sha1")) {
+				String checksum = this.checksums.get(path.substring(path.lastIndexOf('.') + 1));
+				if (checksum == null) {
+					exchange.sendResponseHeaders(404, -1);
+				}
+				else {
+					exchange.sendResponseHeaders(200, checksum.length());
+					exchange.getResponseBody().write(bytes(checksum));
+				}
+				exchange.close();
+				return;
+			}
+			if (this.status != 200) {
+				exchange.sendResponseHeaders(this.status, -1);
+				exchange.close();
+				return;
+			}
+			String etag = this.etag;
+			String lastModified = this.lastModified;
+			if ((etag != null && etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match")))
+					|| (etag == null && lastModified != null
+							&& lastModified.equals(exchange.getRequestHeaders().getFirst("If-Modified-Since")))) {
+				this.notModified.incrementAndGet();
+				exchange.sendResponseHeaders(304, -1);
+				exchange.close();
+				return;
+			}
+			if (etag != null) {
+				exchange.getResponseHeaders().set("ETag", etag);
+			}
+			if (lastModified != null) {
+				exchange.getResponseHeaders().set("Last-Modified", lastModified);
+			}
+			byte[] body = this.content;
+			String range = exchange.getRequestHeaders().getFirst("Range");
+			String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+			if (this.acceptRanges && range != null && (ifRange == null || ifRange.equals(etag))) {
+				this.rangeRequests.incrementAndGet();
+				this.ranges.add(range);
+				String[] bounds = range.substring("bytes=".length()).split("-");
+				int start = Integer.parseInt(bounds[0]);
+				int end = bounds.length > 1 ? Integer.parseInt(bounds[1]) : body.length - 1;
+				exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + body.length);
+				body = Arrays.copyOfRange(body, start, end + 1);
+				exchange.sendResponseHeaders(206, body.length);
+			}
+			else {
+				if (this.acceptRanges) {
+					exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+				}
+				exchange.sendResponseHeaders(200, body.length);
+			}
+			try (OutputStream os = exchange.getResponseBody()) {
+				if (this.truncatedResponses.getAndDecrement() > 0) {
+					// breaks the connection half way through the body
+					os.write(body, 0, body.length / 2);
+					os.flush();
+					exchange.close();
+					return;
+				}
+				os.write(body);
+			}
+			catch (IOException e) {
+				// expected when a response is truncated
+			}
+			exchange.close();
+		});
+		this.server.start();
+		this.url = "http://localhost:" + this.server.getAddress().getPort() + "/repo/foo-1.0.0.jar";
+	}
+
+	@After
+	public void stopServer() {
+		this.server.stop(0);
+	}
+
 	@Test
 	public void test() throws Exception {
 		DownloadingUrlResource httpResource = new DownloadingUrlResource("http://repo.spring.io/libs-release/org/springframework/cloud/stream/app/file-sink-rabbit/1.2.0.RELEASE/file-sink-rabbit-1.2.0.RELEASE.jar");
@@ -36,4 +183,332 @@ public class DownloadingUrlResourceTests {
 		assertThat(file1, is(equalTo(file2)));
 		assertThat(file1.getName(), is(equalTo("6af04efff943e5482911ef00472e796c41c6d411-filesinkrabbit120RELEASEjar")));
 	}
+
+	@Test
+	public void downloadIsSharedThroughCache() throws Exception {
+		DownloadCache cache = new DownloadCache(this.folder.getRoot());
+		File file1 = new DownloadingUrlResource(this.url, cache).getFile();
+		File file2 = new DownloadingUrlResource(this.url, cache).getFile();
+		assertThat(file1, is(equalTo(file2)));
+		assertThat(file1.getParentFile(), is(equalTo(this.folder.getRoot())));
+		assertThat(file1.getName(), is(equalTo(ShaUtils.sha1(this.url) + "-foo100jar")));
+		assertThat(new String(Files.readAllBytes(file1.toPath()), "UTF-8"), is(equalTo("foo")));
+		assertThat(this.requests.get(), is(1));
+		assertThat(cache.getHitCount(), is(1L));
+		assertThat(cache.getMissCount(), is(1L));
+	}
+
+	@Test
+	public void downloadSurvivesRestart() throws Exception {
+		File file1 = new DownloadingUrlResource(this.url, new DownloadCache(this.folder.getRoot())).getFile();
+		File file2 = new DownloadingUrlResource(this.url, new DownloadCache(this.folder.getRoot())).getFile();
+		assertThat(file1, is(equalTo(file2)));
+		assertThat(this.requests.get(), is(1));
+	}
+
+	@Test
+	public void cachedDownloadIsRevalidatedWithETag() throws Exception {
+		this.etag = "\"1\"";
+		DownloadCache cache = new DownloadCache(this.folder.getRoot());
+		File file1 = new DownloadingUrlResource(this.url, cache).getFile();
+		File file2 = new DownloadingUrlResource(this.url, cache).getFile();
+		assertThat(file1, is(equalTo(file2)));
+		assertThat(this.requests.get(), is(2));
+		assertThat(this.notModified.get(), is(1));
+		assertThat(cache.getHitCount(), is(1L));
+		assertThat(cache.getMissCount(), is(1L));
+	}
+
+	@Test
+	public void cachedDownloadIsRevalidatedWithLastModified() throws Exception {
+		this.lastModified = "Wed, 21 Oct 2015 07:28:00 GMT";
+		new DownloadingUrlResource(this.url, new DownloadCache(this.folder.getRoot())).getFile();
+		new DownloadingUrlResource(this.url, new DownloadCache(this.folder.getRoot())).getFile();
+		assertThat(this.requests.get(), is(2));
+		assertThat(this.notModified.get(), is(1));
+	}
+
+	@Test
+	public void modifiedDownloadIsReplaced() throws Exception {
+		this.etag = "\"1\"";
+		DownloadCache cache = new DownloadCache(this.folder.getRoot());
+		new DownloadingUrlResource(this.url, cache).getFile();
+		this.etag = "\"2\"";
+		this.content = bytes("bar");
+		File file = new DownloadingUrlResource(this.url, cache).getFile();
+		assertThat(new String(Files.readAllBytes(file.toPath()), "UTF-8"), is(equalTo("bar")));
+		assertThat(this.notModified.get(), is(0));
+		assertThat(cache.getMissCount(), is(2L));
+		new DownloadingUrlResource(this.url, cache).getFile();
+		assertThat(this.notModified.get(), is(1));
+	}
+
+	@Test
+	public void sharedResourceIsNotRevalidatedWithinInterval() throws Exception {
+		this.etag = "\"1\"";
+		DownloadingUrlResourceLoader loader = new DownloadingUrlResourceLoader(new DownloadCache(this.folder.getRoot()));
+		Resource resource = loader.getResource(this.url);
+		File file = resource.getFile();
+		int requests = this.requests.get();
+		assertThat(loader.getResource(this.url).getFile(), is(equalTo(file)));
+		assertThat(this.requests.get(), is(requests));
+	}
+
+	@Test
+	public void sharedResourceIsRevalidatedAfterInterval() throws Exception {
+		this.etag = "\"1\"";
+		DownloadingUrlResourceLoader loader = new DownloadingUrlResourceLoader(new DownloadCache(this.folder.getRoot()));
+		loader.setRevalidationInterval(0);
+		Resource resource = loader.getResource(this.url);
+		resource.getFile();
+		this.etag = "\"2\"";
+		this.content = bytes("bar");
+		assertThat(loader.getResource(this.url), is(sameInstance(resource)));
+		File file = resource.getFile();
+		assertThat(new String(Files.readAllBytes(file.toPath()), "UTF-8"), is(equalTo("bar")));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void sharedResourceCanNotBeReconfigured() throws Exception {
+		DownloadingUrlResourceLoader loader = new DownloadingUrlResourceLoader(new DownloadCache(this.folder.getRoot()));
+		((DownloadingUrlResource) loader.getResource(this.url)).setVerifyChecksum(true);
+	}
+
+	@Test
+	public void cachedDownloadIsUsedWhenServerIsUnavailable() throws Exception {
+		this.etag = "\"1\"";
+		DownloadCache cache = new DownloadCache(this.folder.getRoot());
+		File file1 = new DownloadingUrlResource(this.url, cache).getFile();
+		this.server.stop(0);
+		File file2 = new DownloadingUrlResource(this.url, cache).getFile();
+		assertThat(file1, is(equalTo(file2)));
+		assertThat(cache.getHitCount(), is(1L));
+	}
+
+	@Test
+	public void largeDownloadIsSplitIntoRanges() throws Exception {
+		this.acceptRanges = true;
+		this.content = new byte[100000];
+		new Random(0).nextBytes(this.content);
+		DownloadingUrlResource resource = new DownloadingUrlResource(this.url, new DownloadCache(this.folder.getRoot()));
+		resource.setParallelDownloadParts(4);
+		resource.setParallelDownloadThreshold(1);
+		File file = resource.getFile();
+		assertThat(Files.readAllBytes(file.toPath()), is(equalTo(this.content)));
+		assertThat(this.rangeRequests.get(), is(3));
+	}
+
+	@Test
+	public void downloadIsNotSplitWithoutRangeSupport() throws Exception {
+		this.content = new byte[100000];
+		DownloadingUrlResource resource = new DownloadingUrlResource(this.url, new DownloadCache(this.folder.getRoot()));
+		resource.setParallelDownloadParts(4);
+		resource.setParallelDownloadThreshold(1);
+		assertThat(resource.getFile().length(), is(100000L));
+		assertThat(this.requests.get(), is(1));
+	}
+
+	@Test
+	public void interruptedDownloadIsResumed() throws Exception {
+		this.etag = "\"1\"";
+		this.acceptRanges = true;
+		this.content = new byte[100000];
+		new Random(0).nextBytes(this.content);
+		this.truncatedResponses.set(1);
+		DownloadingUrlResource resource = new DownloadingUrlResource(this.url, new DownloadCache(this.folder.getRoot()));
+		resource.setRetryBackoff(10);
+		File file = resource.getFile();
+		assertThat(Files.readAllBytes(file.toPath()), is(equalTo(this.content)));
+		assertThat(this.requests.get(), is(2));
+		assertThat(this.ranges, is(equalTo(Collections.singletonList("bytes=50000-"))));
+		String[] files = this.folder.getRoot().list();
+		Arrays.sort(files);
+		assertThat(files, is(equalTo(new String[] { file.getName(), file.getName() + ".meta" })));
+	}
+
+	@Test
+	public void partialDownloadIsResumedByNextResource() throws Exception {
+		this.etag = "\"1\"";
+		this.acceptRanges = true;
+		this.content = new byte[100000];
+		new Random(0).nextBytes(this.content);
+		this.truncatedResponses.set(2);
+		DownloadCache cache = new DownloadCache(this.folder.getRoot());
+		DownloadingUrlResource resource = new DownloadingUrlResource(this.url, cache);
+		resource.setDownloadAttempts(1);
+		try {
+			resource.getFile();
+			fail("Expected the download to fail");
+		}
+		catch (IOException e) {
+			// expected
+		}
+		this.truncatedResponses.set(0);
+		File file = new DownloadingUrlResource(this.url, cache).getFile();
+		assertThat(Files.readAllBytes(file.toPath()), is(equalTo(this.content)));
+		assertThat(this.ranges, is(equalTo(Collections.singletonList("bytes=50000-"))));
+	}
+
+	@Test
+	public void changedFileIsNotResumed() throws Exception {
+		this.etag = "\"1\"";
+		this.acceptRanges = true;
+		this.truncatedResponses.set(1);
+		DownloadCache cache = new DownloadCache(this.folder.getRoot());
+		DownloadingUrlResource resource = new DownloadingUrlResource(this.url, cache);
+		resource.setDownloadAttempts(1);
+		try {
+			resource.getFile();
+			fail("Expected the download to fail");
+		}
+		catch (IOException e) {
+			// expected
+		}
+		this.etag = "\"2\"";
+		this.content = bytes("bar");
+		File file = new DownloadingUrlResource(this.url, cache).getFile();
+		assertThat(new String(Files.readAllBytes(file.toPath()), "UTF-8"), is(equalTo("bar")));
+	}
+
+	@Test
+	public void retriesAreBounded() throws Exception {
+		this.status = 503;
+		DownloadingUrlResource resource = new DownloadingUrlResource(this.url, new DownloadCache(this.folder.getRoot()));
+		resource.setDownloadAttempts(3);
+		resource.setRetryBackoff(10);
+		try {
+			resource.getFile();
+			fail("Expected the download to fail");
+		}
+		catch (IOException e) {
+			assertThat(e.getMessage(), containsString("503"));
+		}
+		assertThat(this.requests.get(), is(3));
+	}
+
+	@Test
+	public void clientErrorsAreNotRetried() throws Exception {
+		this.status = 403;
+		DownloadingUrlResource resource = new DownloadingUrlResource(this.url, new DownloadCache(this.folder.getRoot()));
+		resource.setRetryBackoff(10);
+		try {
+			resource.getFile();
+			fail("Expected the download to fail");
+		}
+		catch (IOException e) {
+			assertThat(e.getMessage(), containsString("403"));
+		}
+		assertThat(this.requests.get(), is(1));
+	}
+
+	@Test
+	public void evictedFileIsDownloadedAgain() throws Exception {
+		DownloadingUrlResource resource = new DownloadingUrlResource(this.url, new DownloadCache(this.folder.getRoot()));
+		File file = resource.getFile();
+		assertThat(file.delete(), is(true));
+		assertThat(resource.getFile().exists(), is(true));
+		assertThat(this.requests.get(), is(2));
+	}
+
+	@Test
+	public void concurrentDownloadsAreShared() throws Exception {
+		this.release = new CountDownLatch(1);
+		DownloadCache cache = new DownloadCache(this.folder.getRoot());
+		DownloadingUrlResource resource1 = new DownloadingUrlResource(this.url, cache);
+		DownloadingUrlResource resource2 = new DownloadingUrlResource(this.url, cache);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<File> file1 = executor.submit(resource1::getFile);
+			while (this.requests.get() == 0) {
+				Thread.sleep(10);
+			}
+			Future<File> file2 = executor.submit(resource2::getFile);
+			assertThat(resource1.getDescription(), is(equalTo("URL [" + this.url + "]")));
+			Thread.sleep(100);
+			assertThat(file2.isDone(), is(false));
+			this.release.countDown();
+			assertThat(file1.get(), is(equalTo(file2.get())));
+			assertThat(this.requests.get(), is(1));
+			assertThat(resource1.getDescription(), containsString(file1.get().getAbsolutePath()));
+		}
+		finally {
+			this.release.countDown();
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void publishedChecksumIsVerified() throws Exception {
+		this.checksums.put("sha256", FOO_SHA256 + "  foo-1.0.0.jar\n");
+		DownloadingUrlResource resource = new DownloadingUrlResource(this.url, new DownloadCache(this.folder.getRoot()));
+		resource.setVerifyChecksum(true);
+		assertThat(new String(Files.readAllBytes(resource.getFile().toPath()), "UTF-8"), is(equalTo("foo")));
+	}
+
+	@Test
+	public void publishedChecksumMismatchFailsDownload() throws Exception {
+		this.checksums.put("sha1", FOO_SHA256.substring(0, 40));
+		DownloadingUrlResource resource = new DownloadingUrlResource(this.url, new DownloadCache(this.folder.getRoot()));
+		resource.setVerifyChecksum(true);
+		resource.setDownloadAttempts(1);
+		try {
+			resource.getFile();
+			fail("Expected the checksum validation to fail");
+		}
+		catch (IOException e) {
+			assertThat(e.getMessage(), containsString("Checksum validation failed"));
+		}
+		assertThat(this.folder.getRoot().list().length, is(0));
+	}
+
+	@Test
+	public void checksumInFragmentIsVerified() throws Exception {
+		DownloadCache cache = new DownloadCache(this.folder.getRoot());
+		File file = new DownloadingUrlResource(this.url + "#sha256=" + FOO_SHA256, cache).getFile();
+		assertThat(new String(Files.readAllBytes(file.toPath()), "UTF-8"), is(equalTo("foo")));
+		DownloadingUrlResource resource = new DownloadingUrlResource(this.url + "#sha1=" + FOO_SHA256.substring(0, 40),
+				cache);
+		resource.setDownloadAttempts(1);
+		try {
+			resource.getFile();
+			fail("Expected the checksum validation to fail");
+		}
+		catch (IOException e) {
+			assertThat(e.getMessage(), containsString("Checksum validation failed"));
+		}
+	}
+
+	@Test
+	public void resumedDownloadIsVerified() throws Exception {
+		this.etag = "\"1\"";
+		this.acceptRanges = true;
+		this.content = new byte[100000];
+		new Random(0).nextBytes(this.content);
+		this.truncatedResponses.set(1);
+		String sha256 = ShaUtils.encodeHex(MessageDigest.getInstance("SHA-256").digest(this.content));
+		DownloadingUrlResource resource = new DownloadingUrlResource(this.url + "#sha256=" + sha256,
+				new DownloadCache(this.folder.getRoot()));
+		resource.setRetryBackoff(10);
+		assertThat(Files.readAllBytes(resource.getFile().toPath()), is(equalTo(this.content)));
+		assertThat(this.ranges, is(equalTo(Collections.singletonList("bytes=50000-"))));
+	}
+
+	@Test
+	public void failedDownloadIsNotCached() throws Exception {
+		DownloadCache cache = new DownloadCache(this.folder.getRoot());
+		try {
+			new DownloadingUrlResource(this.url.replace("/repo/", "/missing/"), cache).getFile();
+			fail("expected IOException");
+		}
+		catch (IOException e) {
+			// expected
+		}
+		assertThat(this.folder.getRoot().list().length, is(0));
+	}
+
+	private static final String FOO_SHA256 = "2c26b46b68ffc68ff99b453c1d30413413422d706483bfa0f98a5e886266e7ae";
+
+	private static byte[] bytes(String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
 }
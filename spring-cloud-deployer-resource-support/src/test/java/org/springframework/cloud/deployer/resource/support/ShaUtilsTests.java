@@ -18,11 +18,15 @@ package org.springframework.cloud.deployer.resource.support;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.security.SecureRandom;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * Simple sha utils tests.
@@ -31,6 +35,9 @@ import org.junit.Test;
  */
 public class ShaUtilsTests {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void testSimpleSmoke() {
 		for (int j = 0; j < 100; j++) {
@@ -42,6 +49,16 @@ public class ShaUtilsTests {
 		}
 	}
 
+	@Test
+	public void knownDigests() throws Exception {
+		assertEquals("0beec7b5ea3f0fdbc95d0dd47f3c5bc275da8a33", ShaUtils.sha1("foo"));
+		assertEquals("2c26b46b68ffc68ff99b453c1d30413413422d706483bfa0f98a5e886266e7ae", ShaUtils.sha256("foo"));
+		File file = this.folder.newFile();
+		Files.write(file.toPath(), "foo".getBytes("UTF-8"));
+		assertEquals(ShaUtils.sha1("foo"), ShaUtils.sha1(file));
+		assertEquals(ShaUtils.sha256("foo"), ShaUtils.sha256(file));
+	}
+
 	static final String CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz!£$%^&*()-=+_";
 	static SecureRandom rnd = new SecureRandom();
 